@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+/**
+ * Cursor over arguments of a command line that is not split into an array. Current argument is available through
+ * {@link CharSequence} methods and is valid until the next {@link #next()} call; {@link #toString()} creates its
+ * String.
+ */
+interface ArgumentCursor extends CharSequence {
+
+    /**
+     * Moves to the next argument.
+     *
+     * @return true if there is an argument, false at the end of the command line
+     */
+    boolean next();
+}
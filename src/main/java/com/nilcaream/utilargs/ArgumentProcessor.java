@@ -17,27 +17,55 @@
 package com.nilcaream.utilargs;
 
 import com.nilcaream.utilargs.core.ArgumentBinder;
-import com.nilcaream.utilargs.model.Option;
+import com.nilcaream.utilargs.core.BindingException;
+import com.nilcaream.utilargs.core.BindingPlan;
+import com.nilcaream.utilargs.core.FlagBinder;
+import com.nilcaream.utilargs.core.GeneratedBinder;
+import com.nilcaream.utilargs.core.OperandsBinding;
+import com.nilcaream.utilargs.core.OptionBinding;
 import com.nilcaream.utilargs.model.Parameter;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * POSIX-style argument parser. Contains minimal subset of POSIX-1.2008 standard.
  * <p/>
- * This class is stateful and is not thread-safe.
+ * This class is stateful and is not thread-safe. Wrapper class fields are resolved once per class into a shared
+ * {@link BindingPlan}.
  * <p/>
  * Krzysztof Smigielski 10/28/12 7:31 PM
  */
 public class ArgumentProcessor {
 
+    private static final FlagBinder FLAG_BINDER = new FlagBinder();
+    private static final String FLAG_ARGUMENT = "true";
+    private static final long MAPPED_PROPERTIES_SIZE = 1 << 20;
+    private static final int PARALLEL_VALUES_LENGTH = 1 << 16;
+
     private String[] arguments;
     private Object wrapper;
 
-    private Map<String, Parameter> optionNameToParameter = new HashMap<>();
+    private BindingPlan plan = BindingPlan.of(Object.class);
+    private Parameter[] parameters = new Parameter[0];
+    private long[] flags = new long[0];
+    private long[] present = new long[0];
+    private int[] group = new int[0];
     private List<ArgumentBinder> binders = new ArrayList<>();
+    private List<BindingException> bindingErrors = new ArrayList<>();
+    private boolean generatedBinders;
+    private boolean abbreviatedLongOptions;
+    private ForkJoinPool propertiesPool;
+    private ForkJoinPool valuesPool;
+    private int parallelValuesLength = PARALLEL_VALUES_LENGTH;
     private int operandsIndex;
+    private String operands;
 
     public ArgumentProcessor() {
     }
@@ -49,54 +77,204 @@ public class ArgumentProcessor {
      * @param wrapper   option wrapper object
      */
     public final void initialize(String[] arguments, Object wrapper) {
+        initialize(arguments, wrapper, BindingPlan.of(wrapper.getClass()));
+    }
+
+    /**
+     * Initiates argument resolution and binding procedure with given plan, e.g. of a {@link CompiledParser}
+     * compiled for a superclass of the wrapper.
+     */
+    final void initialize(String[] arguments, Object wrapper, BindingPlan plan) {
+        prepare(arguments, wrapper, plan);
+        processArguments();
+        bindValues();
+    }
+
+    /**
+     * Initiates argument resolution and binding procedure of a single command line, e.g. read from a log or
+     * an environment variable. The line is split into arguments by {@link CommandLineTokenizer} while it is
+     * processed: option keys are matched against views of the line and only option arguments and operands are
+     * created as Strings, so the line is processed in a single pass over its characters.
+     * <p/>
+     * Options are resolved the same way as by {@link #initialize(String[], Object)}. As there is no array of all
+     * arguments, {@link #getArguments()} contains only operands and {@link #getOperandsIndex()} is 0.
+     *
+     * @param commandLine command line
+     * @param wrapper     option wrapper object
+     */
+    public final void initialize(CharSequence commandLine, Object wrapper) {
+        initialize(commandLine, wrapper, BindingPlan.of(wrapper.getClass()));
+    }
+
+    /**
+     * Initiates binding procedure of a single command line with given plan.
+     *
+     * @see #initialize(String[], Object, BindingPlan)
+     */
+    final void initialize(CharSequence commandLine, Object wrapper, BindingPlan plan) {
+        prepare(new String[0], wrapper, plan);
+        processCommandLine(new CommandLineTokenizer(commandLine));
+        bindValues();
+    }
+
+    /**
+     * Initiates argument resolution and binding procedure of NUL-separated UTF-8 arguments, e.g. contents of
+     * /proc/PID/cmdline, read from position to limit of given buffer. The buffer is not modified. Option keys are
+     * matched against the bytes of the buffer and only option arguments and operands are decoded.
+     * <p/>
+     * Options are resolved the same way as by {@link #initialize(String[], Object)}; {@link #getArguments()}
+     * contains only operands and {@link #getOperandsIndex()} is 0. As the first argument of a process command line
+     * is the program, move buffer position after it to resolve options.
+     *
+     * @param arguments NUL-separated arguments
+     * @param wrapper   option wrapper object
+     */
+    public final void initialize(ByteBuffer arguments, Object wrapper) {
+        initialize(arguments, wrapper, BindingPlan.of(wrapper.getClass()));
+    }
+
+    /**
+     * Initiates binding procedure of NUL-separated arguments with given plan.
+     *
+     * @see #initialize(String[], Object, BindingPlan)
+     */
+    final void initialize(ByteBuffer arguments, Object wrapper, BindingPlan plan) {
+        prepare(new String[0], wrapper, plan);
+        processCommandLine(new NulSeparatedArguments(arguments));
+        bindValues();
+    }
+
+    /**
+     * Initiates binding procedure of properties file. Keys of key=value lines are matched directly against long
+     * option names and values are used as option arguments. The file is streamed line by line without building
+     * an array of arguments, so {@link #getArguments()} is empty and there are no operands. Files of 1MB and more
+     * are memory-mapped, their keys are matched against the mapped bytes and only values of known keys are decoded.
+     * With a {@link #setPropertiesPool(ForkJoinPool) pool} set, files are split into chunks processed in parallel,
+     * unless the wrapper has {@link OptionBinding#isMultiValued() multi-valued} options, which need values of all
+     * occurrences of a key in file order.
+     * <p/>
+     * Flag options are set regardless of value. Lines of unknown keys are ignored.
+     *
+     * @param path    path to properties file
+     * @param wrapper option wrapper object
+     * @throws IOException if any I/O errors occurs during file read
+     */
+    public final void initialize(Path path, Object wrapper) throws IOException {
+        prepare(new String[0], wrapper);
+        if (propertiesPool != null && !plan.hasMultiValuedOptions()) {
+            new PropertiesProcessor().processParallel(path, propertiesPool, parameters.length,
+                    this::resolveProperty, this::setProperty);
+        } else if (Files.size(path) >= MAPPED_PROPERTIES_SIZE) {
+            new PropertiesProcessor().processMapped(path, this::processProperty);
+        } else {
+            new PropertiesProcessor().process(path, this::processProperty);
+        }
+        bindValues();
+    }
+
+    /**
+     * Resolves options of given arguments against given plan without binding them, e.g. to read their values with
+     * {@link #nextPresent(int)} and {@link #getArgument(int)}.
+     */
+    void resolve(String[] arguments, BindingPlan plan) {
+        if (plan == this.plan && wrapper == null) {
+            reset(arguments);
+        } else {
+            prepare(arguments, null, plan);
+        }
+        processArguments();
+    }
+
+    /**
+     * Gets plan of the last processed wrapper.
+     */
+    BindingPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Clears state of the last resolved arguments, keeping parameters to be reused, since nothing was bound.
+     */
+    private void reset(String[] arguments) {
+        for (int index = nextPresent(0); index >= 0; index = nextPresent(index + 1)) {
+            parameters[index].setArgument(null);
+            parameters[index].setOccurrences(0);
+        }
+        Arrays.fill(flags, 0);
+        Arrays.fill(present, 0);
         operandsIndex = 0;
-        optionNameToParameter.clear();
+        operands = null;
+        this.arguments = arguments;
+    }
+
+    private void prepare(String[] arguments, Object wrapper) {
+        prepare(arguments, wrapper, BindingPlan.of(wrapper.getClass()));
+    }
+
+    private void prepare(String[] arguments, Object wrapper, BindingPlan plan) {
+        operandsIndex = 0;
+        operands = null;
+        bindingErrors = new ArrayList<>();
 
         this.arguments = arguments;
         this.wrapper = wrapper;
 
-        resolveWrapperFields();
-        processArguments();
-        bindValues();
+        this.plan = plan;
+        parameters = new Parameter[plan.size()];
+        flags = new long[(parameters.length + 63) >>> 6];
+        present = new long[flags.length];
     }
 
-    private void resolveWrapperFields() {
-        Field[] fields = wrapper.getClass().getDeclaredFields();
-        for (Field field : fields) {
-            Parameter parameter = createArgument(field);
-            if (parameter != null && parameter.getOption().name() != 0) {
-                optionNameToParameter.put("-" + parameter.getOption().name(), parameter);
-            }
-            if (parameter != null && !"".equals(parameter.getOption().longName())) {
-                optionNameToParameter.put("--" + parameter.getOption().longName(), parameter);
-            }
+    private void processProperty(String line, int separator) {
+        OptionBinding binding = plan.getLong(line, 0, separator, abbreviatedLongOptions);
+        if (binding != null) {
+            setProperty(binding, binding.isFlag() ? null : line.substring(separator + 1));
         }
     }
 
-    private Parameter createArgument(Field field) {
-        Parameter parameter = null;
-        Option option = field.getAnnotation(Option.class);
-        if (option != null && (option.name() != 0 || !" ".equals(option.longName()))) {
-            parameter = new Parameter();
-            parameter.setOption(option);
-            parameter.setField(field);
+    private void processProperty(CharSequence key, CharSequence value) {
+        OptionBinding binding = plan.getLong(key, 0, key.length(), abbreviatedLongOptions);
+        if (binding != null) {
+            setProperty(binding, binding.isFlag() ? null : value.toString());
+        }
+    }
+
+    private int resolveProperty(CharSequence key) {
+        OptionBinding binding = plan.getLong(key, 0, key.length(), abbreviatedLongOptions);
+        return binding == null ? -1 : binding.getIndex();
+    }
+
+    private void setProperty(int index, int occurrences, String value) {
+        OptionBinding binding = plan.get(index);
+        for (int occurrence = 0; occurrence < occurrences && binding.isFlag(); occurrence++) {
+            setFlag(index);
+        }
+        if (!binding.isFlag()) {
+            setProperty(binding, value);
+        }
+    }
+
+    private void setProperty(OptionBinding binding, String value) {
+        if (binding.isFlag()) {
+            setFlag(binding.getIndex());
+        } else {
+            setArgument(binding, value);
         }
-        return parameter;
     }
 
     private void processArguments() {
         if (areArgumentsAvailable()) {
             for (int index = 0; index < arguments.length; ) {
-                Parameter parameter = getParameterByKey(arguments[index]);
+                OptionBinding binding = getBindingByKey(arguments[index]);
                 String key = arguments[index];
                 String value = getNextArgument(index);
 
                 index += 1;
-                if (parameter != null) {
-                    if (isBoolean(parameter)) {
-                        parameter.setArgument("true");
+                if (binding != null) {
+                    if (binding.isFlag()) {
+                        setFlag(binding.getIndex());
                     } else {
-                        parameter.setArgument(value);
+                        setArgument(binding, value);
                         index += 1;
                     }
 
@@ -106,10 +284,9 @@ public class ArgumentProcessor {
                     } else {
                         operandsIndex = index;
                     }
-                } else if (isBooleanGroup(key)) {
-                    for (char option : key.substring(1).toCharArray()) {
-                        parameter = optionNameToParameter.get("-" + option);
-                        parameter.setArgument("true");
+                } else if (isFlagGroup(key)) {
+                    for (int position = 1; position < key.length(); position++) {
+                        setFlag(group[position - 1]);
                     }
 
                     if (isEndOfOptionsDelimiter(index)) {
@@ -123,20 +300,64 @@ public class ArgumentProcessor {
         }
     }
 
+    private void processCommandLine(ArgumentCursor cursor) {
+        List<String> operands = new ArrayList<>();
+        boolean available = cursor.next();
+        boolean options = available && startsWith(cursor, '-') && !plan.getOptionNameToBinding().isEmpty();
+        while (available) {
+            OptionBinding binding = options ? getBindingByKey(cursor) : null;
+            if (binding != null) {
+                if (binding.isFlag()) {
+                    setFlag(binding.getIndex());
+                } else {
+                    setArgument(binding, cursor.next() ? cursor.toString() : "");
+                }
+            } else if (options && isFlagGroup(cursor)) {
+                for (int position = 1; position < cursor.length(); position++) {
+                    setFlag(group[position - 1]);
+                }
+            } else {
+                operands.add(cursor.toString());
+                available = cursor.next();
+                continue;
+            }
+
+            operands.clear();
+            available = cursor.next();
+            if (available && isEndOfOptionsDelimiter(cursor)) {
+                options = false;
+                available = cursor.next();
+            }
+        }
+        arguments = operands.toArray(new String[operands.size()]);
+    }
+
     private boolean areArgumentsAvailable() {
-        return arguments.length != 0 && arguments[0].startsWith("-") && !optionNameToParameter.isEmpty();
+        return arguments.length != 0 && arguments[0].startsWith("-") && !plan.getOptionNameToBinding().isEmpty();
     }
 
-    private Parameter getParameterByKey(String key) {
-        Parameter parameter = null;
+    private OptionBinding getBindingByKey(CharSequence key) {
+        OptionBinding binding = null;
         if (isOption(key)) {
-            parameter = optionNameToParameter.get(key);
+            if (key.length() == 2) {
+                binding = plan.getShort(key.charAt(1));
+            } else if (key.length() > 2 && key.charAt(1) == '-') {
+                binding = plan.getLong(key, 2, abbreviatedLongOptions);
+            }
         }
-        return parameter;
+        return binding;
+    }
+
+    private boolean isOption(CharSequence key) {
+        return startsWith(key, '-') && !isEndOfOptionsDelimiter(key);
     }
 
-    private boolean isOption(String key) {
-        return key.startsWith("-") && !key.equals("--");
+    private static boolean startsWith(CharSequence key, char value) {
+        return key.length() > 0 && key.charAt(0) == value;
+    }
+
+    private static boolean isEndOfOptionsDelimiter(CharSequence key) {
+        return key.length() == 2 && key.charAt(0) == '-' && key.charAt(1) == '-';
     }
 
     private String getNextArgument(int index) {
@@ -147,83 +368,292 @@ public class ArgumentProcessor {
         return nextArg;
     }
 
-    private boolean isBoolean(Parameter parameter) {
-        return parameter.getField().getType().getSimpleName().equalsIgnoreCase("boolean");
-    }
-
     private boolean isEndOfOptionsDelimiter(int index) {
-        return index < arguments.length && arguments[index].equals("--");
+        return index < arguments.length && isEndOfOptionsDelimiter(arguments[index]);
     }
 
-    private boolean isBooleanGroup(String booleanGroup) {
-        boolean isBooleanGroup = false;
-        if (booleanGroup.startsWith("-") && booleanGroup.length() > 2 && !booleanGroup.startsWith("--")) {
-            isBooleanGroup = true;
-            for (char option : booleanGroup.substring(1).toCharArray()) {
-                Parameter parameter = optionNameToParameter.get("-" + option);
-                if (parameter == null || !isBoolean(parameter)) {
-                    isBooleanGroup = false;
+    /**
+     * Checks if given argument is a group of flags, e.g. "-abc" or "-vvv". Binding indices of all flags are stored
+     * in {@link #group} array, so the group does not have to be resolved again.
+     */
+    private boolean isFlagGroup(CharSequence flagGroup) {
+        boolean isFlagGroup = false;
+        if (flagGroup.length() > 2 && flagGroup.charAt(0) == '-' && flagGroup.charAt(1) != '-') {
+            if (group.length < flagGroup.length() - 1) {
+                group = new int[flagGroup.length() - 1];
+            }
+            isFlagGroup = true;
+            for (int position = 1; position < flagGroup.length() && isFlagGroup; position++) {
+                OptionBinding binding = plan.getShort(flagGroup.charAt(position));
+                if (binding == null || !binding.isFlag()) {
+                    isFlagGroup = false;
+                } else {
+                    group[position - 1] = binding.getIndex();
                 }
             }
         }
-        return isBooleanGroup;
+        return isFlagGroup;
+    }
+
+    /**
+     * Sets argument of given option. Arguments of {@link OptionBinding#isMultiValued() multi-valued} options are
+     * added to arguments of their previous occurrences, otherwise the last occurrence wins.
+     */
+    private void setArgument(OptionBinding binding, String value) {
+        if (binding.isMultiValued()) {
+            getParameter(binding.getIndex()).addArgument(value);
+        } else {
+            getParameter(binding.getIndex()).setArgument(value);
+        }
+        present[binding.getIndex() >>> 6] |= 1L << binding.getIndex();
+    }
+
+    private void setFlag(int index) {
+        Parameter parameter = getParameter(index);
+        parameter.setArgument(FLAG_ARGUMENT);
+        parameter.setOccurrences(parameter.getOccurrences() + 1);
+        flags[index >>> 6] |= 1L << index;
+        present[index >>> 6] |= 1L << index;
     }
 
     private void bindValues() {
-        for (Parameter parameter : getParameters()) {
-            bindValue(parameter);
+        GeneratedBinder generatedBinder = generatedBinders ? plan.getGeneratedBinder() : null;
+        for (int word = 0; word < flags.length; word++) {
+            for (long bits = flags[word]; bits != 0; bits &= bits - 1) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bindFlag(generatedBinder, plan.get(index), parameters[index]);
+            }
+        }
+        for (int word = 0; word < present.length; word++) {
+            for (long bits = present[word] & ~flags[word]; bits != 0; bits &= bits - 1) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (plan.get(index).isMultiValued()) {
+                    bindMultiValue(plan.get(index), parameters[index]);
+                } else if (generatedBinder != null) {
+                    bindGeneratedValue(generatedBinder, plan.get(index), parameters[index]);
+                } else {
+                    bindValue(plan.get(index), parameters[index]);
+                }
+            }
+        }
+        OperandsBinding operandsBinding = plan.getOperandsBinding();
+        if (operandsBinding != null) {
+            try {
+                operandsBinding.bind(wrapper, getOperandList(), binders);
+            } catch (BindingException e) {
+                bindingErrors.add(e);
+            }
+        }
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void bindFlag(GeneratedBinder generatedBinder, OptionBinding binding, Parameter parameter) {
+        try {
+            if (generatedBinder != null) {
+                generatedBinder.bindFlag(wrapper, binding.getIndex(), parameter.getOccurrences());
+            } else if (resolveField(binding, parameter)) {
+                FLAG_BINDER.bind(parameter, wrapper);
+            }
+        } catch (BindingException e) {
+            bindingErrors.add(e);
+        } catch (Exception e) {
+            bindingErrors.add(new BindingException(parameter, "Invalid flag field " + binding.getFieldName(), e));
+        }
+    }
+
+    private void bindGeneratedValue(GeneratedBinder generatedBinder, OptionBinding binding, Parameter parameter) {
+        try {
+            generatedBinder.bind(wrapper, binding.getIndex(), parameter.getArgument());
+        } catch (BindingException e) {
+            bindingErrors.add(e);
+        } catch (Exception e) {
+            bindingErrors.add(new BindingException(parameter, "Invalid argument for field " + binding.getFieldName(), e));
         }
     }
 
-    private void bindValue(Parameter parameter) {
-        for (ArgumentBinder binder : binders) {
+    private void bindMultiValue(OptionBinding binding, Parameter parameter) {
+        if (!resolveField(binding, parameter)) {
+            return;
+        }
+        try {
+            binding.bindValues(parameter, wrapper, binders, valuesPool, parallelValuesLength);
+        } catch (BindingException e) {
+            bindingErrors.add(e);
+        }
+    }
+
+    private void bindValue(OptionBinding binding, Parameter parameter) {
+        if (!resolveField(binding, parameter)) {
+            return;
+        }
+        ArgumentBinder[] supportingBinders = binding.getSupportingBinders(binders);
+        if (supportingBinders.length == 0) {
+            bindingErrors.add(new BindingException(parameter, "No binder supports type of field " + binding.getFieldName(), null));
+            return;
+        }
+        try {
+            // the first supporting binder converts the argument, other binders would not do better
+            supportingBinders[0].bind(parameter, wrapper);
+        } catch (BindingException e) {
+            bindingErrors.add(e);
+        } catch (Exception e) {
+            bindingErrors.add(new BindingException(parameter, "Invalid argument for field " + binding.getFieldName(), e));
+        }
+    }
+
+    /**
+     * Sets field of parameter for reflective binding. Fields of generated bindings are resolved on first use only.
+     *
+     * @return true if field is set, false if it can not be resolved and a binding error was added
+     */
+    private boolean resolveField(OptionBinding binding, Parameter parameter) {
+        if (parameter.getField() == null) {
             try {
-                binder.bind(parameter, wrapper);
-                break;
-            } catch (Exception e) {
-                // ignore and keep looking
+                parameter.setField(binding.getField());
+            } catch (IllegalStateException e) {
+                bindingErrors.add(new BindingException(parameter, e.getMessage(), e));
+                return false;
             }
         }
+        return true;
     }
 
+    /**
+     * Gets operands joined with spaces. The String is built on the first call only.
+     *
+     * @return not-null String
+     * @see #getOperandList()
+     */
     public String getOperands() {
-        StringBuilder operands = new StringBuilder();
-        if (operandsIndex < arguments.length) {
-            for (int index = operandsIndex; index < arguments.length; index++) {
-                operands.append(arguments[index]).append(" ");
-            }
+        if (operands == null) {
+            operands = joinOperands(arguments, operandsIndex);
+        }
+        return operands;
+    }
+
+    /**
+     * Gets operands as a read-only view of arguments array, so operands are neither copied nor joined and
+     * operands containing spaces are kept intact. Use its iterator or stream to process operands one by one.
+     *
+     * @return not-null, read-only list
+     */
+    public List<String> getOperandList() {
+        return Collections.unmodifiableList(Arrays.asList(arguments).subList(Math.min(operandsIndex, arguments.length), arguments.length));
+    }
+
+    /**
+     * Gets stream of operands in which the "-" operand is replaced by operands read lazily from given input, e.g.
+     * standard input. Operands of input are read through a bounded buffer while the stream is consumed, see
+     * {@link OperandReader}.
+     *
+     * @param input     input stream, not closed by the stream
+     * @param delimiter {@link OperandReader#NEWLINE} or {@link OperandReader#NUL}
+     * @return sequential stream of operands
+     */
+    public Stream<String> getOperandStream(InputStream input, byte delimiter) {
+        return OperandReader.operands(getOperandList(), input, delimiter);
+    }
+
+    static String joinOperands(String[] arguments, int operandsIndex) {
+        int length = 0;
+        for (int index = operandsIndex; index < arguments.length; index++) {
+            length += arguments[index].length() + 1;
+        }
+        StringBuilder operands = new StringBuilder(length);
+        for (int index = operandsIndex; index < arguments.length; index++) {
+            operands.append(arguments[index]).append(" ");
         }
         return operands.toString().trim();
     }
 
     /**
-     * Gets list of all parameters found in wrapper object.
+     * Gets list of all parameters found in wrapper object. Fields of parameters are resolved if they were not used
+     * for binding, a parameter has no field only if it can not be resolved.
      *
-     * @return not-null list sorted by an option name.
+     * @return not-null list sorted by an option name, with a single parameter per option field
      */
     public List<Parameter> getDeclaredParameters() {
-        List<Parameter> parameters = new ArrayList<>();
-        parameters.addAll(optionNameToParameter.values());
-        Collections.sort(parameters);
+        List<Parameter> parameters = new ArrayList<>(this.parameters.length);
+        for (int position = 0; position < this.parameters.length; position++) {
+            parameters.add(withField(plan.getOrdered(position).getIndex()));
+        }
         return parameters;
     }
 
     /**
-     * Gets list of parameters found in wrapper class that were also present in arguments.
+     * Gets list of parameters found in wrapper class that were also present in arguments. Fields of parameters are
+     * resolved as in {@link #getDeclaredParameters()}.
      *
      * @return not-null list sorted by an option name.
      */
     public final List<Parameter> getParameters() {
         List<Parameter> parameters = new ArrayList<>();
-        for (Parameter parameter : optionNameToParameter.values()) {
-            if (parameter.getArgument() != null && !parameters.contains(parameter)) {
-                parameters.add(parameter);
+        for (int position = 0; position < this.parameters.length; position++) {
+            int index = plan.getOrdered(position).getIndex();
+            if (isSet(present, index)) {
+                parameters.add(withField(index));
             }
         }
-        Collections.sort(parameters);
         return parameters;
     }
 
+    private Parameter withField(int index) {
+        Parameter parameter = getParameter(index);
+        if (parameter.getField() == null) {
+            try {
+                parameter.setField(plan.get(index).getField());
+            } catch (IllegalStateException e) {
+                // reflection is not available, e.g. in a native image
+            }
+        }
+        return parameter;
+    }
+
+    /**
+     * Gets parameter of given binding index. Parameters are created on first access, so options that are not
+     * present in arguments do not allocate them unless {@link #getDeclaredParameters() requested}.
+     */
+    private Parameter getParameter(int index) {
+        Parameter parameter = parameters[index];
+        if (parameter == null) {
+            parameter = plan.get(index).createParameter();
+            parameters[index] = parameter;
+        }
+        return parameter;
+    }
+
+    /**
+     * Gets binding index of the first option present in arguments, starting from given index.
+     *
+     * @return binding index or -1 if there are no more present options
+     */
+    int nextPresent(int from) {
+        for (int word = from >>> 6; word < present.length; word++) {
+            long bits = word == from >>> 6 ? present[word] & (-1L << from) : present[word];
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets argument of present option of given binding index, "true" for flags.
+     */
+    String getArgument(int index) {
+        return parameters[index].getArgument();
+    }
+
+    /**
+     * Gets number of occurrences of present flag of given binding index.
+     */
+    int getOccurrences(int index) {
+        return parameters[index].getOccurrences();
+    }
+
     public String[] getArguments() {
         return arguments;
     }
@@ -236,6 +666,90 @@ public class ArgumentProcessor {
         return operandsIndex;
     }
 
+    /**
+     * Gets errors of arguments that could not be bound to wrapper fields by any of the binders.
+     *
+     * @return not-null list in binding order
+     */
+    public List<BindingException> getBindingErrors() {
+        return bindingErrors;
+    }
+
+    public boolean isGeneratedBinders() {
+        return generatedBinders;
+    }
+
+    /**
+     * Enables binding with compile-time {@link GeneratedBinder generated binders} instead of the list of binders,
+     * for wrapper classes that have one. Generated binders convert arguments the same way as the default
+     * {@link UtilArgs} binders.
+     *
+     * @param generatedBinders true to use generated binders when available
+     */
+    public void setGeneratedBinders(boolean generatedBinders) {
+        this.generatedBinders = generatedBinders;
+    }
+
+    public boolean isAbbreviatedLongOptions() {
+        return abbreviatedLongOptions;
+    }
+
+    /**
+     * Enables matching of long options by unique prefix, e.g. "--verb" for "--verbose" option, as in getopt_long.
+     * Ambiguous prefixes are not matched. Disabled by default.
+     *
+     * @param abbreviatedLongOptions true to accept unique prefixes of long options
+     */
+    public void setAbbreviatedLongOptions(boolean abbreviatedLongOptions) {
+        this.abbreviatedLongOptions = abbreviatedLongOptions;
+    }
+
+    public ForkJoinPool getPropertiesPool() {
+        return propertiesPool;
+    }
+
+    /**
+     * Sets pool used to process properties files in parallel. Chunks of a file are scanned concurrently and values
+     * of repeated keys are resolved in file order, the last one wins. Files of wrappers with multi-valued options
+     * are processed on the calling thread. Null, the default, processes all files on the calling thread.
+     *
+     * @param propertiesPool pool or null
+     */
+    public void setPropertiesPool(ForkJoinPool propertiesPool) {
+        this.propertiesPool = propertiesPool;
+    }
+
+    public ForkJoinPool getValuesPool() {
+        return valuesPool;
+    }
+
+    /**
+     * Sets pool used to parse long values of int[], long[] and double[] options, e.g. "--weights 0.1,0.2,..." with
+     * hundreds of thousands of elements. Such values are split into chunks at commas, which are parsed concurrently
+     * straight into the array. Null, the default, parses all values on the calling thread.
+     *
+     * @param valuesPool pool or null
+     * @see #setParallelValuesLength(int)
+     */
+    public void setValuesPool(ForkJoinPool valuesPool) {
+        this.valuesPool = valuesPool;
+    }
+
+    public int getParallelValuesLength() {
+        return parallelValuesLength;
+    }
+
+    /**
+     * Sets minimal length of a value parsed in parallel by {@link #setValuesPool(ForkJoinPool) values pool}. Shorter
+     * values are parsed on the calling thread, as splitting them costs more than it saves. Default is 65536
+     * characters, roughly 5000 double values.
+     *
+     * @param parallelValuesLength number of characters
+     */
+    public void setParallelValuesLength(int parallelValuesLength) {
+        this.parallelValuesLength = parallelValuesLength;
+    }
+
     public List<ArgumentBinder> getBinders() {
         return binders;
     }
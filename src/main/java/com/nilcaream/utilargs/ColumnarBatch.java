@@ -0,0 +1,426 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.core.BindingPlan;
+import com.nilcaream.utilargs.core.Numbers;
+import com.nilcaream.utilargs.core.OptionBinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of many argument vectors stored in columns, one {@link Column} per option of a wrapper class, without
+ * creating wrapper instances. Each column holds values of all rows (argument vectors) in a primitive array and
+ * a bitmap of rows in which the option was present:
+ * <ul>
+ * <li>byte, short and int options in {@link IntColumn}</li>
+ * <li>long options in {@link LongColumn}</li>
+ * <li>float and double options in {@link DoubleColumn}</li>
+ * <li>boolean flags in {@link BooleanColumn} and counted flags in {@link IntColumn} of occurrences</li>
+ * <li>options of other types in dictionary-encoded {@link StringColumn} of arguments</li>
+ * </ul>
+ * Arguments that can not be converted to a primitive column type are marked as invalid and left as 0. Arguments are
+ * parsed with {@link Numbers}, so invalid ones are cheap to detect. {@link OptionBinding#isMultiValued() Multi-valued}
+ * options are not supported.
+ * <p/>
+ * Batches are created by {@link CompiledParser#parseColumns(java.util.Iterator)} and are not modified afterwards.
+ */
+public final class ColumnarBatch {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final BindingPlan plan;
+    private final Column[] columns;
+    private int size;
+
+    /**
+     * @throws IllegalArgumentException when plan has a multi-valued option
+     */
+    ColumnarBatch(BindingPlan plan, int capacity) {
+        this.plan = plan;
+        this.columns = new Column[plan.size()];
+        capacity = Math.max(capacity, 1);
+        for (int index = 0; index < columns.length; index++) {
+            columns[index] = createColumn(plan.get(index), capacity);
+        }
+    }
+
+    ColumnarBatch(BindingPlan plan) {
+        this(plan, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Adds a row of options resolved by given processor.
+     */
+    void add(ArgumentProcessor processor) {
+        int row = size++;
+        for (int index = processor.nextPresent(0); index >= 0; index = processor.nextPresent(index + 1)) {
+            Column column = columns[index];
+            column.ensureCapacity(size);
+            column.setPresent(row);
+            column.set(row, processor);
+        }
+    }
+
+    /**
+     * Gets number of rows, i.e. parsed argument vectors.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    public BindingPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Gets column of option, in order of {@link BindingPlan#get(int)} bindings.
+     *
+     * @param index binding index
+     * @return not-null column
+     */
+    public Column getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Gets column of option by key as used in command line.
+     *
+     * @param key option key, e.g. "-n" or "--name"
+     * @return column or null when option is not declared
+     */
+    public Column getColumn(String key) {
+        OptionBinding binding = plan.get(key);
+        return binding == null ? null : columns[binding.getIndex()];
+    }
+
+    /**
+     * Gets all columns, in order of {@link BindingPlan#get(int)} bindings.
+     *
+     * @return not-null, read-only list
+     */
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    private static Column createColumn(OptionBinding binding, int capacity) {
+        if (binding.isMultiValued()) {
+            throw new IllegalArgumentException("Multi-valued option " + binding + " can not be stored in a column");
+        }
+        Class<?> type = binding.getType();
+        if (type == byte.class || type == Byte.class || type == short.class || type == Short.class
+                || type == int.class || type == Integer.class) {
+            return new IntColumn(binding, capacity, binding.isCounted());
+        } else if (type == long.class || type == Long.class) {
+            return binding.isCounted() ? new IntColumn(binding, capacity, true) : new LongColumn(binding, capacity);
+        } else if (type == float.class || type == Float.class || type == double.class || type == Double.class) {
+            return new DoubleColumn(binding, capacity);
+        } else if (type == boolean.class || type == Boolean.class) {
+            return new BooleanColumn(binding, capacity);
+        } else {
+            return new StringColumn(binding, capacity);
+        }
+    }
+
+    private static boolean isSet(long[] bits, int row) {
+        return row >>> 6 < bits.length && (bits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private static long[] set(long[] bits, int row) {
+        if (row >>> 6 >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(bits.length * 2, (row >>> 6) + 1));
+        }
+        bits[row >>> 6] |= 1L << row;
+        return bits;
+    }
+
+    /**
+     * Values of a single option in all rows of a batch.
+     */
+    public abstract static class Column {
+
+        private final OptionBinding binding;
+        private long[] present;
+        private long[] invalid = new long[0];
+
+        Column(OptionBinding binding, int capacity) {
+            this.binding = binding;
+            this.present = new long[(capacity + 63) >>> 6];
+        }
+
+        public OptionBinding getBinding() {
+            return binding;
+        }
+
+        /**
+         * Checks if option was present in given row.
+         *
+         * @param row row index
+         * @return true if present, even with an invalid argument
+         */
+        public boolean isPresent(int row) {
+            return isSet(present, row);
+        }
+
+        /**
+         * Checks if argument of option in given row could not be converted to column type.
+         *
+         * @param row row index
+         * @return true if argument is invalid
+         */
+        public boolean isInvalid(int row) {
+            return isSet(invalid, row);
+        }
+
+        /**
+         * Gets presence bitmap, bit of each row set when option was present in it.
+         *
+         * @return copy of bitmap words
+         */
+        public long[] getPresence() {
+            return present.clone();
+        }
+
+        void setPresent(int row) {
+            present = ColumnarBatch.set(present, row);
+        }
+
+        void setInvalid(int row) {
+            invalid = ColumnarBatch.set(invalid, row);
+        }
+
+        abstract void ensureCapacity(int size);
+
+        abstract void set(int row, ArgumentProcessor processor);
+    }
+
+    /**
+     * Column of byte, short and int options or of occurrences of counted flags.
+     */
+    public static final class IntColumn extends Column {
+
+        private final boolean counted;
+        private final int min;
+        private final int max;
+        private int[] values;
+
+        IntColumn(OptionBinding binding, int capacity, boolean counted) {
+            super(binding, capacity);
+            this.counted = counted;
+            Class<?> type = binding.getType();
+            if (type == byte.class || type == Byte.class) {
+                min = Byte.MIN_VALUE;
+                max = Byte.MAX_VALUE;
+            } else if (type == short.class || type == Short.class) {
+                min = Short.MIN_VALUE;
+                max = Short.MAX_VALUE;
+            } else {
+                min = Integer.MIN_VALUE;
+                max = Integer.MAX_VALUE;
+            }
+            this.values = new int[capacity];
+        }
+
+        public int get(int row) {
+            return row < values.length ? values[row] : 0;
+        }
+
+        @Override
+        void ensureCapacity(int size) {
+            if (size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size));
+            }
+        }
+
+        @Override
+        void set(int row, ArgumentProcessor processor) {
+            if (counted) {
+                values[row] = processor.getOccurrences(getBinding().getIndex());
+            } else {
+                try {
+                    int value = Numbers.parseInt(processor.getArgument(getBinding().getIndex()));
+                    if (value < min || value > max) {
+                        setInvalid(row);
+                    } else {
+                        values[row] = value;
+                    }
+                } catch (NumberFormatException e) {
+                    setInvalid(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Column of long options.
+     */
+    public static final class LongColumn extends Column {
+
+        private long[] values;
+
+        LongColumn(OptionBinding binding, int capacity) {
+            super(binding, capacity);
+            this.values = new long[capacity];
+        }
+
+        public long get(int row) {
+            return row < values.length ? values[row] : 0;
+        }
+
+        @Override
+        void ensureCapacity(int size) {
+            if (size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size));
+            }
+        }
+
+        @Override
+        void set(int row, ArgumentProcessor processor) {
+            try {
+                values[row] = Numbers.parseLong(processor.getArgument(getBinding().getIndex()));
+            } catch (NumberFormatException e) {
+                setInvalid(row);
+            }
+        }
+    }
+
+    /**
+     * Column of float and double options.
+     */
+    public static final class DoubleColumn extends Column {
+
+        private double[] values;
+
+        DoubleColumn(OptionBinding binding, int capacity) {
+            super(binding, capacity);
+            this.values = new double[capacity];
+        }
+
+        public double get(int row) {
+            return row < values.length ? values[row] : 0;
+        }
+
+        @Override
+        void ensureCapacity(int size) {
+            if (size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size));
+            }
+        }
+
+        @Override
+        void set(int row, ArgumentProcessor processor) {
+            try {
+                values[row] = Numbers.parseDouble(processor.getArgument(getBinding().getIndex()));
+            } catch (NumberFormatException e) {
+                setInvalid(row);
+            }
+        }
+    }
+
+    /**
+     * Column of boolean flags, a flag is true in rows in which it was present.
+     */
+    public static final class BooleanColumn extends Column {
+
+        BooleanColumn(OptionBinding binding, int capacity) {
+            super(binding, capacity);
+        }
+
+        public boolean get(int row) {
+            return isPresent(row);
+        }
+
+        @Override
+        void ensureCapacity(int size) {
+        }
+
+        @Override
+        void set(int row, ArgumentProcessor processor) {
+        }
+    }
+
+    /**
+     * Column of arguments of options of other types. Distinct arguments are stored once in a dictionary and rows
+     * hold their codes.
+     */
+    public static final class StringColumn extends Column {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] values;
+
+        StringColumn(OptionBinding binding, int capacity) {
+            super(binding, capacity);
+            this.values = new int[capacity];
+        }
+
+        /**
+         * Gets argument of given row.
+         *
+         * @param row row index
+         * @return argument or null when option was not present
+         */
+        public String get(int row) {
+            return isPresent(row) ? dictionary.get(values[row]) : null;
+        }
+
+        /**
+         * Gets dictionary code of argument of given row.
+         *
+         * @param row row index
+         * @return index in {@link #getDictionary() dictionary} or -1 when option was not present
+         */
+        public int getCode(int row) {
+            return isPresent(row) ? values[row] : -1;
+        }
+
+        /**
+         * Gets distinct arguments in order of their first occurrence.
+         *
+         * @return not-null, read-only list
+         */
+        public List<String> getDictionary() {
+            return Collections.unmodifiableList(dictionary);
+        }
+
+        @Override
+        void ensureCapacity(int size) {
+            if (size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size));
+            }
+        }
+
+        @Override
+        void set(int row, ArgumentProcessor processor) {
+            String argument = processor.getArgument(getBinding().getIndex());
+            Integer code = codes.get(argument);
+            if (code == null) {
+                code = dictionary.size();
+                codes.put(argument, code);
+                dictionary.add(argument);
+            }
+            values[row] = code;
+        }
+    }
+}
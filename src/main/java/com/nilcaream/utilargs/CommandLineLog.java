@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.core.DelimiterScanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader of log files in which every line is a command line, e.g. captured job or process command lines. Lines are
+ * split into arguments by {@link CommandLineTokenizer}; blank lines are skipped.
+ * <p/>
+ * Files are memory-mapped and read by streams backed by a {@link Spliterator} that splits the file into chunks at
+ * line boundaries, so {@link Stream#parallel() parallel} streams tokenize and parse chunks on all cores. Each
+ * chunk reuses a single processor for all of its lines. Lines are not decoded up front: ASCII lines are tokenized
+ * directly from the mapped bytes and only option arguments and operands are decoded. Streams keep the file open and have to be closed:
+ * <pre>
+ * try (Stream&lt;ParseResult&lt;Options&gt;&gt; results = new CommandLineLog().parse(path, parser).parallel()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class CommandLineLog {
+
+    private static final int MAX_WINDOW_SIZE = 1 << 26;
+    private static final long MIN_SPLIT_SIZE = 1 << 20;
+
+    private final int windowSize;
+    private final long minSplitSize;
+    private final DelimiterScanner scanner = DelimiterScanner.getDefault();
+
+    public CommandLineLog() {
+        this(MAX_WINDOW_SIZE, MIN_SPLIT_SIZE);
+    }
+
+    CommandLineLog(int windowSize, long minSplitSize) {
+        this.windowSize = windowSize;
+        this.minSplitSize = minSplitSize;
+    }
+
+    /**
+     * Creates stream of arguments of each line of given file, in file order.
+     *
+     * @param path path to log file
+     * @return sequential stream which has to be closed
+     * @throws IOException if file can not be opened
+     */
+    public Stream<String[]> arguments(Path path) throws IOException {
+        return stream(path, () -> CommandLineTokenizer::tokenize);
+    }
+
+    /**
+     * Creates stream of results of parsing each line of given file by given parser, in file order. Each result
+     * has a new wrapper instance.
+     *
+     * @param path   path to log file
+     * @param parser parser of lines
+     * @param <T>    wrapper type
+     * @return sequential stream which has to be closed
+     * @throws IOException if file can not be opened
+     */
+    public <T> Stream<ParseResult<T>> parse(Path path, CompiledParser<T> parser) throws IOException {
+        return stream(path, () -> {
+            ArgumentProcessor processor = parser.createProcessor();
+            return line -> parser.parse(line, processor);
+        });
+    }
+
+    private <R> Stream<R> stream(Path path, Supplier<Function<CharSequence, R>> mappers) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            LineSpliterator<R> spliterator = new LineSpliterator<>(channel, 0, channel.size(), mappers);
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Spliterator of non-blank lines of a region of file. Lines are mapped by a function created on first use, so
+     * each split has its own.
+     */
+    private final class LineSpliterator<R> implements Spliterator<R> {
+
+        private final FileChannel channel;
+        private final Supplier<Function<CharSequence, R>> mappers;
+        private final long end;
+        private long position;
+        private Function<CharSequence, R> mapper;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private final PropertiesProcessor.ByteRegion line = new PropertiesProcessor.ByteRegion();
+
+        private LineSpliterator(FileChannel channel, long start, long end, Supplier<Function<CharSequence, R>> mappers) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.mappers = mappers;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            try {
+                while (position < end) {
+                    if (nextLine()) {
+                        if (mapper == null) {
+                            mapper = mappers.get();
+                        }
+                        action.accept(mapper.apply(line));
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Resets {@link #line} to the next line and moves after its terminator.
+         *
+         * @return false if line is blank
+         */
+        private boolean nextLine() throws IOException {
+            int from = (int) (position - windowStart);
+            int lineEnd = window == null ? 0 : scanner.scan(window, from, window.limit(), false);
+            if (window == null || lineEnd == window.limit() && windowStart + window.limit() < end) {
+                long size = Math.min(windowSize, end - position);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                windowStart = position;
+                from = 0;
+                lineEnd = scanner.scan(window, 0, window.limit(), false);
+                if (lineEnd == window.limit() && position + size < end) {
+                    throw new IOException("Line longer than " + windowSize + " bytes at offset " + position);
+                }
+            }
+            position = windowStart + lineEnd + 1;
+            for (int index = from; index < lineEnd; index++) {
+                if (!CommandLineTokenizer.isSeparator((char) window.get(index))) {
+                    line.reset(window, from, lineEnd);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            if (window != null || end - position < 2 * minSplitSize) {
+                return null;
+            }
+            try {
+                long middle = PropertiesProcessor.findLineStart(channel, position + (end - position) / 2);
+                if (middle <= position || middle >= end) {
+                    return null;
+                }
+                LineSpliterator<R> prefix = new LineSpliterator<>(channel, position, middle, mappers);
+                position = middle;
+                return prefix;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a single command line into arguments the way a POSIX shell does, without expansions:
+ * <ul>
+ * <li>arguments are separated by spaces, tabs and line terminators</li>
+ * <li>characters in single quotes are taken literally</li>
+ * <li>in double quotes a backslash escapes only $, `, " and \</li>
+ * <li>outside of quotes a backslash escapes any character</li>
+ * <li>a backslash followed by a newline outside of single quotes is a line continuation and is removed</li>
+ * </ul>
+ * Quotes that are not closed extend to the end of the line, so a malformed line never fails.
+ * <p/>
+ * An instance is a cursor over a region of characters: each {@link #next()} call moves to the next argument,
+ * which is then available through the {@link CharSequence} methods of the tokenizer. Arguments without quotes and
+ * escapes are views of the line; others are copied into a buffer reused between arguments. Strings are created
+ * only by {@link #toString()}, so a command line can be matched against options in a single pass over its
+ * characters. Instances are not thread-safe.
+ *
+ * @see <a href="http://pubs.opengroup.org/onlinepubs/9699919799/utilities/V3_chap02.html#tag_18_02">http://pubs.opengroup.org/onlinepubs/9699919799/utilities/V3_chap02.html#tag_18_02</a>
+ */
+public final class CommandLineTokenizer implements CharSequence, ArgumentCursor {
+
+    private final CharSequence line;
+    private final int to;
+    private int position;
+    private int start;
+    private int end;
+    private boolean copied;
+    private char[] buffer = new char[0];
+    private int length;
+
+    /**
+     * Creates tokenizer of given command line.
+     *
+     * @param line command line
+     */
+    public CommandLineTokenizer(CharSequence line) {
+        this(line, 0, line.length());
+    }
+
+    /**
+     * Creates tokenizer of given region of characters.
+     *
+     * @param line characters of command line
+     * @param from index of the first character
+     * @param to   index after the last character
+     */
+    public CommandLineTokenizer(CharSequence line, int from, int to) {
+        this.line = line;
+        this.position = from;
+        this.to = to;
+    }
+
+    /**
+     * Splits given command line into arguments.
+     *
+     * @param line command line
+     * @return not-null array of arguments, empty for a blank line
+     */
+    public static String[] tokenize(CharSequence line) {
+        return tokenize(line, 0, line.length());
+    }
+
+    /**
+     * Splits given region of characters into arguments.
+     *
+     * @param line characters of command line
+     * @param from index of the first character
+     * @param to   index after the last character
+     * @return not-null array of arguments, empty for a blank region
+     */
+    public static String[] tokenize(CharSequence line, int from, int to) {
+        List<String> arguments = new ArrayList<>();
+        CommandLineTokenizer tokenizer = new CommandLineTokenizer(line, from, to);
+        while (tokenizer.next()) {
+            arguments.add(tokenizer.toString());
+        }
+        return arguments.toArray(new String[arguments.size()]);
+    }
+
+    /**
+     * Moves to the next argument.
+     *
+     * @return true if there is an argument, false at the end of the line
+     */
+    @Override
+    public boolean next() {
+        while (position < to && (isSeparator(line.charAt(position)) || isLineContinuation(position))) {
+            position += isSeparator(line.charAt(position)) ? 1 : 2;
+        }
+        copied = false;
+        start = position;
+        if (position == to) {
+            end = position;
+            return false;
+        }
+        for (; position < to; position++) {
+            char value = line.charAt(position);
+            if (isSeparator(value)) {
+                break;
+            } else if (value == '\'' || value == '"' || value == '\\') {
+                copy();
+                break;
+            }
+        }
+        end = position;
+        return true;
+    }
+
+    /**
+     * Continues current argument from a quote or an escape, copying its characters into buffer.
+     */
+    private void copy() {
+        copied = true;
+        length = 0;
+        for (int index = start; index < position; index++) {
+            append(line.charAt(index));
+        }
+        for (; position < to; position++) {
+            char value = line.charAt(position);
+            if (value == '\'') {
+                for (position++; position < to && line.charAt(position) != '\''; position++) {
+                    append(line.charAt(position));
+                }
+            } else if (value == '"') {
+                for (position++; position < to && line.charAt(position) != '"'; position++) {
+                    char quoted = line.charAt(position);
+                    if (isLineContinuation(position)) {
+                        position++;
+                        continue;
+                    } else if (quoted == '\\' && position + 1 < to && isEscapedInDoubleQuotes(line.charAt(position + 1))) {
+                        quoted = line.charAt(++position);
+                    }
+                    append(quoted);
+                }
+            } else if (isLineContinuation(position)) {
+                position++;
+            } else if (value == '\\') {
+                if (position + 1 < to) {
+                    append(line.charAt(++position));
+                }
+            } else if (isSeparator(value)) {
+                break;
+            } else {
+                append(value);
+            }
+        }
+        // an unclosed quote ends at the end of the line
+        position = Math.min(position, to);
+    }
+
+    private void append(char value) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(16, length * 2));
+        }
+        buffer[length++] = value;
+    }
+
+    /**
+     * Gets index of the first character of current argument in the line, including its quotes.
+     *
+     * @return index in the line
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Gets index after the last character of current argument in the line, including its quotes.
+     *
+     * @return index in the line
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    @Override
+    public int length() {
+        return copied ? length : end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return copied ? buffer[index] : line.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return toString().subSequence(from, to);
+    }
+
+    /**
+     * Creates String of current argument.
+     *
+     * @return current argument
+     */
+    @Override
+    public String toString() {
+        return copied ? new String(buffer, 0, length) : line.subSequence(start, end).toString();
+    }
+
+    static boolean isSeparator(char value) {
+        return value == ' ' || value == '\t' || value == '\n' || value == '\r';
+    }
+
+    private boolean isLineContinuation(int index) {
+        return line.charAt(index) == '\\' && index + 1 < to && line.charAt(index + 1) == '\n';
+    }
+
+    private static boolean isEscapedInDoubleQuotes(char value) {
+        return value == '$' || value == '`' || value == '"' || value == '\\';
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.core.ArgumentBinder;
+import com.nilcaream.utilargs.core.BindingPlan;
+
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, thread-safe parser of arguments of a single wrapper class. The binding plan and binders are resolved
+ * once when the parser is compiled; every {@link #parse(String[])} call uses its own, call-local state and binds
+ * a new wrapper instance, so a parser can be shared and called concurrently without locking.
+ * <p/>
+ * Arguments are processed and bound the same way as by {@link UtilArgs}. Large numbers of argument vectors can be
+ * parsed in batches, sequentially or split between threads of a {@link ForkJoinPool}.
+ *
+ * @param <T> wrapper type
+ */
+public final class CompiledParser<T> {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final Class<T> type;
+    private final Supplier<? extends T> factory;
+    private final BindingPlan plan;
+    private final List<ArgumentBinder> binders;
+    private final boolean abbreviatedLongOptions;
+
+    private CompiledParser(Class<T> type, Supplier<? extends T> factory, List<ArgumentBinder> binders,
+                           boolean abbreviatedLongOptions) {
+        this.type = type;
+        this.factory = factory;
+        this.plan = BindingPlan.of(type);
+        this.binders = Collections.unmodifiableList(new ArrayList<>(binders));
+        this.abbreviatedLongOptions = abbreviatedLongOptions;
+        for (int index = 0; index < plan.size(); index++) {
+            plan.get(index).getSupportingBinders(this.binders);
+        }
+    }
+
+    /**
+     * Compiles parser of given wrapper class with default {@link UtilArgs} binders. Wrappers are created with
+     * the no-argument constructor of the class, which does not have to be public.
+     *
+     * @param type wrapper class
+     * @param <T>  wrapper type
+     * @return not-null parser
+     * @throws IllegalArgumentException if wrapper class has no no-argument constructor
+     */
+    public static <T> CompiledParser<T> compile(Class<T> type) {
+        return compile(type, newInstanceFactory(type));
+    }
+
+    /**
+     * Compiles parser of given wrapper class with default {@link UtilArgs} binders. The factory may create
+     * instances of subclasses, only options declared by given wrapper class are bound.
+     *
+     * @param type    wrapper class
+     * @param factory thread-safe factory of new wrapper instances
+     * @param <T>     wrapper type
+     * @return not-null parser
+     */
+    public static <T> CompiledParser<T> compile(Class<T> type, Supplier<? extends T> factory) {
+        return new CompiledParser<>(type, factory, UtilArgs.BINDERS, false);
+    }
+
+    /**
+     * Creates parser using given binders, in the same way as {@link ArgumentProcessor#setBinders(List)}.
+     *
+     * @param binders thread-safe binders
+     * @return new parser
+     */
+    public CompiledParser<T> withBinders(List<ArgumentBinder> binders) {
+        return new CompiledParser<>(type, factory, binders, abbreviatedLongOptions);
+    }
+
+    /**
+     * Creates parser accepting unique prefixes of long options, see
+     * {@link ArgumentProcessor#setAbbreviatedLongOptions(boolean)}.
+     *
+     * @param abbreviatedLongOptions true to accept unique prefixes of long options
+     * @return new parser
+     */
+    public CompiledParser<T> withAbbreviatedLongOptions(boolean abbreviatedLongOptions) {
+        return new CompiledParser<>(type, factory, binders, abbreviatedLongOptions);
+    }
+
+    /**
+     * Parses given arguments into a new wrapper instance. Never throws an exception when binding fails, errors are
+     * available in the result.
+     *
+     * @param arguments command line arguments
+     * @return not-null result
+     */
+    public ParseResult<T> parse(String[] arguments) {
+        return parse(arguments, factory.get());
+    }
+
+    /**
+     * Parses given arguments into given wrapper instance, which must not be used by other threads at the same time.
+     *
+     * @param arguments command line arguments
+     * @param wrapper   wrapper to bind
+     * @return not-null result
+     */
+    public ParseResult<T> parse(String[] arguments, T wrapper) {
+        return parse(arguments, wrapper, createProcessor());
+    }
+
+    /**
+     * Parses given command line into a new wrapper instance. The line is split into arguments the way
+     * {@link CommandLineTokenizer} does while it is parsed, see {@link ArgumentProcessor#initialize(CharSequence, Object)}.
+     *
+     * @param commandLine command line
+     * @return not-null result; its arguments contain only operands
+     */
+    public ParseResult<T> parse(CharSequence commandLine) {
+        return parse(commandLine, createProcessor());
+    }
+
+    /**
+     * Parses NUL-separated UTF-8 arguments from position to limit of given buffer into a new wrapper instance, see
+     * {@link ArgumentProcessor#initialize(ByteBuffer, Object)}. The buffer is not modified, but it must not be
+     * modified by other threads during this call.
+     *
+     * @param arguments NUL-separated arguments
+     * @return not-null result; its arguments contain only operands
+     */
+    public ParseResult<T> parse(ByteBuffer arguments) {
+        T wrapper = factory.get();
+        ArgumentProcessor processor = createProcessor();
+        processor.initialize(arguments, wrapper, plan);
+        return new ParseResult<>(wrapper, processor);
+    }
+
+    /**
+     * Parses each of given argument vectors into a new wrapper instance. A single processor is reused for all
+     * vectors, so per-call setup of {@link #parse(String[])} is done once per batch.
+     *
+     * @param arguments argument vectors
+     * @return not-null, read-only list of results in order of vectors
+     */
+    public List<ParseResult<T>> parseAll(Iterator<String[]> arguments) {
+        ArgumentProcessor processor = createProcessor();
+        List<ParseResult<T>> results = new ArrayList<>();
+        while (arguments.hasNext()) {
+            results.add(parse(arguments.next(), factory.get(), processor));
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Parses each of given argument vectors into a new wrapper instance.
+     *
+     * @param arguments argument vectors
+     * @return not-null, read-only list of results in order of vectors
+     * @see #parseAll(Iterator)
+     */
+    public List<ParseResult<T>> parseAll(List<String[]> arguments) {
+        return parseAll(arguments.iterator());
+    }
+
+    /**
+     * Parses each of given argument vectors into a new wrapper instance, splitting vectors into batches parsed by
+     * threads of given pool. The number of threads is set by {@link ForkJoinPool#getParallelism() pool parallelism}.
+     * Wrapper factory of this parser must be thread-safe.
+     *
+     * @param arguments argument vectors
+     * @param pool      pool to parse batches in
+     * @return not-null, read-only list of results in order of vectors
+     */
+    public List<ParseResult<T>> parseAll(List<String[]> arguments, ForkJoinPool pool) {
+        String[][] vectors = arguments.toArray(new String[arguments.size()][]);
+        @SuppressWarnings("unchecked")
+        ParseResult<T>[] results = (ParseResult<T>[]) new ParseResult<?>[vectors.length];
+        pool.invoke(new BatchTask(vectors, results, 0, vectors.length));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Parses each of given argument vectors into a row of a {@link ColumnarBatch}, without creating wrapper
+     * instances.
+     *
+     * @param arguments argument vectors
+     * @return not-null batch with a row per vector, in order of vectors
+     * @throws IllegalArgumentException when wrapper has a multi-valued option
+     */
+    public ColumnarBatch parseColumns(Iterator<String[]> arguments) {
+        return parseColumns(arguments, new ColumnarBatch(plan));
+    }
+
+    /**
+     * Parses each of given argument vectors into a row of a {@link ColumnarBatch}.
+     *
+     * @param arguments argument vectors
+     * @return not-null batch with a row per vector, in order of vectors
+     * @throws IllegalArgumentException when wrapper has a multi-valued option
+     * @see #parseColumns(Iterator)
+     */
+    public ColumnarBatch parseColumns(List<String[]> arguments) {
+        return parseColumns(arguments.iterator(), new ColumnarBatch(plan, arguments.size()));
+    }
+
+    private ColumnarBatch parseColumns(Iterator<String[]> arguments, ColumnarBatch batch) {
+        ArgumentProcessor processor = createProcessor();
+        while (arguments.hasNext()) {
+            processor.resolve(arguments.next(), plan);
+            batch.add(processor);
+        }
+        return batch;
+    }
+
+    /**
+     * Parses given arguments into a new wrapper instance with given processor of {@link #createProcessor()}, which
+     * must not be used by other threads at the same time.
+     */
+    ParseResult<T> parse(String[] arguments, ArgumentProcessor processor) {
+        return parse(arguments, factory.get(), processor);
+    }
+
+    /**
+     * Parses given command line into a new wrapper instance with given processor of {@link #createProcessor()}.
+     */
+    ParseResult<T> parse(CharSequence commandLine, ArgumentProcessor processor) {
+        T wrapper = factory.get();
+        processor.initialize(commandLine, wrapper, plan);
+        return new ParseResult<>(wrapper, processor);
+    }
+
+    private ParseResult<T> parse(String[] arguments, T wrapper, ArgumentProcessor processor) {
+        processor.initialize(arguments, wrapper, plan);
+        return new ParseResult<>(wrapper, processor);
+    }
+
+    ArgumentProcessor createProcessor() {
+        ArgumentProcessor processor = new ArgumentProcessor();
+        processor.setBinders(binders);
+        processor.setGeneratedBinders(true);
+        processor.setAbbreviatedLongOptions(abbreviatedLongOptions);
+        processor.setValuesPool(ForkJoinPool.commonPool());
+        return processor;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public BindingPlan getPlan() {
+        return plan;
+    }
+
+    private static <T> Supplier<T> newInstanceFactory(Class<T> type) {
+        final Constructor<T> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("No no-argument constructor in " + type.getName(), e);
+        }
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create " + type.getName(), e);
+            }
+        };
+    }
+
+    private final class BatchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String[][] vectors;
+        private final ParseResult<T>[] results;
+        private final int from;
+        private final int to;
+
+        private BatchTask(String[][] vectors, ParseResult<T>[] results, int from, int to) {
+            this.vectors = vectors;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                ArgumentProcessor processor = createProcessor();
+                for (int index = from; index < to; index++) {
+                    results[index] = parse(vectors[index], factory.get(), processor);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(vectors, results, from, middle), new BatchTask(vectors, results, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor over NUL-separated UTF-8 arguments, e.g. contents of /proc/PID/cmdline. Each argument is checked for
+ * non-ASCII bytes while its end is searched for; ASCII arguments are read directly from the bytes of the buffer and
+ * others are decoded. A NUL after the last argument is optional; consecutive NULs stand for empty arguments.
+ */
+final class NulSeparatedArguments implements ArgumentCursor {
+
+    private final ByteBuffer buffer;
+    private final byte[] array;
+    private final int offset;
+    private final int limit;
+    private int position;
+    private int start;
+    private int end;
+    private String decoded;
+
+    /**
+     * Creates cursor over bytes from position to limit of given buffer. Position of buffer is not changed.
+     */
+    NulSeparatedArguments(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.array = buffer.hasArray() ? buffer.array() : null;
+        this.offset = buffer.hasArray() ? buffer.arrayOffset() : 0;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    @Override
+    public boolean next() {
+        decoded = null;
+        start = position;
+        if (position >= limit) {
+            end = position;
+            return false;
+        }
+        int ascii = 0;
+        byte value;
+        while (position < limit && (value = get(position)) != 0) {
+            ascii |= value;
+            position++;
+        }
+        end = position++;
+        if (ascii < 0) {
+            decoded = decode(StandardCharsets.UTF_8);
+        }
+        return true;
+    }
+
+    private byte get(int index) {
+        return array != null ? array[offset + index] : buffer.get(index);
+    }
+
+    private String decode(Charset charset) {
+        if (array != null) {
+            return new String(array, offset + start, end - start, charset);
+        }
+        byte[] bytes = new byte[end - start];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = buffer.get(start + index);
+        }
+        return new String(bytes, charset);
+    }
+
+    @Override
+    public int length() {
+        return decoded != null ? decoded.length() : end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return decoded != null ? decoded.charAt(index) : (char) get(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return toString().subSequence(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return decoded != null ? decoded : decode(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader of operands from an input stream, e.g. standard input of {@code find ... -print0 | tool -}. Operands are
+ * UTF-8 records separated by {@link #NEWLINE} (a preceding \r is removed) or by {@link #NUL}; empty records are
+ * skipped. Operands are read lazily through a fixed-size buffer, so memory use is bounded by the longest operand
+ * rather than by the input size.
+ * <p/>
+ * The reader does not close its input stream. Instances are not thread-safe.
+ */
+public final class OperandReader {
+
+    public static final byte NEWLINE = '\n';
+    public static final byte NUL = 0;
+
+    /**
+     * Operand standing for operands read from standard input.
+     */
+    public static final String STANDARD_INPUT = "-";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream input;
+    private final byte delimiter;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private byte[] record = new byte[0];
+    private int recordLength;
+
+    /**
+     * Creates reader of operands of given input.
+     *
+     * @param input     input stream
+     * @param delimiter {@link #NEWLINE} or {@link #NUL}
+     */
+    public OperandReader(InputStream input, byte delimiter) {
+        this(input, delimiter, BUFFER_SIZE);
+    }
+
+    OperandReader(InputStream input, byte delimiter, int bufferSize) {
+        this.input = input;
+        this.delimiter = delimiter;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Creates stream of given operands in which each {@link #STANDARD_INPUT "-"} operand is replaced by operands
+     * read lazily from given input. The stream short-circuits, e.g. {@code findFirst()} reads input only until the
+     * first operand.
+     *
+     * @param operands  operands of command line
+     * @param input     input stream, e.g. {@link System#in}
+     * @param delimiter {@link #NEWLINE} or {@link #NUL}
+     * @return sequential stream which throws {@link UncheckedIOException} on read errors
+     */
+    public static Stream<String> operands(List<String> operands, InputStream input, byte delimiter) {
+        OperandReader reader = new OperandReader(input, delimiter);
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<String>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int index;
+            private boolean reading;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                while (true) {
+                    if (reading) {
+                        String operand = reader.nextUnchecked();
+                        if (operand != null) {
+                            action.accept(operand);
+                            return true;
+                        }
+                        reading = false;
+                    }
+                    if (index == operands.size()) {
+                        return false;
+                    }
+                    String operand = operands.get(index++);
+                    if (STANDARD_INPUT.equals(operand)) {
+                        reading = true;
+                    } else {
+                        action.accept(operand);
+                        return true;
+                    }
+                }
+            }
+        }, false);
+    }
+
+    /**
+     * Reads the next operand.
+     *
+     * @return operand or null at the end of input
+     * @throws IOException if any I/O errors occurs during read
+     */
+    public String next() throws IOException {
+        String operand;
+        do {
+            operand = nextRecord();
+        } while (operand != null && operand.isEmpty());
+        return operand;
+    }
+
+    /**
+     * Passes all remaining operands to given consumer.
+     *
+     * @param consumer consumer of operands
+     * @throws IOException if any I/O errors occurs during read
+     */
+    public void forEach(Consumer<String> consumer) throws IOException {
+        for (String operand = next(); operand != null; operand = next()) {
+            consumer.accept(operand);
+        }
+    }
+
+    /**
+     * Creates stream of remaining operands.
+     *
+     * @return sequential stream which throws {@link UncheckedIOException} on read errors
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<String>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                String operand = nextUnchecked();
+                if (operand == null) {
+                    return false;
+                }
+                action.accept(operand);
+                return true;
+            }
+        }, false);
+    }
+
+    private String nextUnchecked() {
+        try {
+            return next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String nextRecord() throws IOException {
+        recordLength = 0;
+        while (true) {
+            if (position == limit) {
+                position = 0;
+                limit = Math.max(0, input.read(buffer));
+                if (limit == 0) {
+                    return recordLength == 0 ? null : decode(record, recordLength);
+                }
+            }
+            for (int index = position; index < limit; index++) {
+                if (buffer[index] == delimiter) {
+                    String operand;
+                    if (recordLength == 0) {
+                        operand = decode(buffer, position, index);
+                    } else {
+                        append(index);
+                        operand = decode(record, recordLength);
+                    }
+                    position = index + 1;
+                    return operand;
+                }
+            }
+            append(limit);
+            position = limit;
+        }
+    }
+
+    /**
+     * Appends buffer from position to given index to the record that does not fit into the buffer.
+     */
+    private void append(int to) {
+        int length = to - position;
+        if (recordLength + length > record.length) {
+            record = Arrays.copyOf(record, Math.max(recordLength + length, record.length * 2));
+        }
+        System.arraycopy(buffer, position, record, recordLength, length);
+        recordLength += length;
+    }
+
+    private String decode(byte[] bytes, int length) {
+        return decode(bytes, 0, length);
+    }
+
+    private String decode(byte[] bytes, int from, int to) {
+        if (delimiter == NEWLINE && to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.core.BindingException;
+import com.nilcaream.utilargs.core.BindingPlan;
+import com.nilcaream.utilargs.core.OptionBinding;
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Result of a single {@link CompiledParser#parse(String[])} call: bound wrapper, operands, options present in
+ * arguments and binding errors. Instances are not modified after creation and can be passed between threads.
+ *
+ * @param <T> wrapper type
+ */
+public final class ParseResult<T> {
+
+    private final T wrapper;
+    private final String[] arguments;
+    private final int operandsIndex;
+    private final BindingPlan plan;
+    private final Parameter[] parameters;
+    private final List<BindingException> bindingErrors;
+    // built on demand, a racy initialization is safe as Strings are immutable
+    private String operands;
+
+    ParseResult(T wrapper, ArgumentProcessor processor) {
+        this.wrapper = wrapper;
+        this.arguments = processor.getArguments();
+        this.operandsIndex = processor.getOperandsIndex();
+        this.plan = processor.getPlan();
+        List<Parameter> parameters = processor.getParameters();
+        this.parameters = parameters.toArray(new Parameter[parameters.size()]);
+        List<BindingException> bindingErrors = processor.getBindingErrors();
+        this.bindingErrors = bindingErrors.isEmpty() ? Collections.<BindingException>emptyList()
+                : Collections.unmodifiableList(bindingErrors);
+    }
+
+    public T getWrapper() {
+        return wrapper;
+    }
+
+    /**
+     * Gets a copy of parsed arguments.
+     *
+     * @return not-null array
+     */
+    public String[] getArguments() {
+        return arguments.clone();
+    }
+
+    public int getOperandsIndex() {
+        return operandsIndex;
+    }
+
+    /**
+     * Gets operands joined with spaces, as {@link UtilArgs#getOperands()} does. The String is built on the first
+     * call only.
+     *
+     * @return not-null String
+     */
+    public String getOperands() {
+        String current = operands;
+        if (current == null) {
+            current = ArgumentProcessor.joinOperands(arguments, operandsIndex);
+            operands = current;
+        }
+        return current;
+    }
+
+    /**
+     * Gets operands as separate arguments, a read-only view of arguments that are neither copied nor joined.
+     *
+     * @return not-null, read-only list
+     */
+    public List<String> getOperandList() {
+        return Collections.unmodifiableList(Arrays.asList(arguments).subList(Math.min(operandsIndex, arguments.length), arguments.length));
+    }
+
+    /**
+     * Gets stream of operands in which the "-" operand is replaced by operands read lazily from given input.
+     *
+     * @param input     input stream, not closed by the stream
+     * @param delimiter {@link OperandReader#NEWLINE} or {@link OperandReader#NUL}
+     * @return sequential stream of operands
+     * @see UtilArgs#getOperandStream(InputStream, byte)
+     */
+    public Stream<String> getOperandStream(InputStream input, byte delimiter) {
+        return OperandReader.operands(getOperandList(), input, delimiter);
+    }
+
+    /**
+     * Gets parameters of options present in arguments.
+     *
+     * @return not-null, read-only list sorted by an option name
+     */
+    public List<Parameter> getParameters() {
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    /**
+     * Checks if option was present in arguments.
+     *
+     * @param key option key as used in command line, e.g. "-n" or "--name"
+     * @return true if option is declared by wrapper and was present
+     */
+    public boolean isPresent(String key) {
+        return getOccurrences(key) > 0;
+    }
+
+    /**
+     * Gets number of occurrences of option in arguments. Options with argument are counted once.
+     *
+     * @param key option key as used in command line, e.g. "-v" or "--verbose"
+     * @return number of occurrences, 0 when not present or not declared
+     */
+    public int getOccurrences(String key) {
+        OptionBinding binding = plan.get(key);
+        if (binding != null) {
+            for (Parameter parameter : parameters) {
+                if (parameter.getOption() == binding.getOption()) {
+                    return Math.max(1, parameter.getOccurrences());
+                }
+            }
+        }
+        return 0;
+    }
+
+    public List<BindingException> getBindingErrors() {
+        return bindingErrors;
+    }
+}
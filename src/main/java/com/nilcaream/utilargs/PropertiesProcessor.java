@@ -16,27 +16,431 @@
 
 package com.nilcaream.utilargs;
 
+import com.nilcaream.utilargs.core.DelimiterScanner;
+
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Utility class for converting property file contents into command line arguments in long option name format.
  * <p>
+ * Files are read line by line, so memory use is bounded by the longest line rather than by the file size.
+ * Large files can be {@link #processMapped(Path, MappedPropertyConsumer) memory-mapped} instead of decoded, or
+ * {@link #processParallel(Path, ForkJoinPool, int, KeyResolver, IndexedPropertyConsumer) split into chunks}
+ * processed in parallel.
+ * <p>
  * Krzysztof Smigielski 2/21/2017.
  */
 public class PropertiesProcessor {
 
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final long MAX_CHUNK_SIZE = 1 << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int BOUNDARY_BLOCK_SIZE = 8192;
+
+    private final int windowSize;
+    private final DelimiterScanner scanner;
+
+    public PropertiesProcessor() {
+        this(DelimiterScanner.getDefault());
+    }
+
+    /**
+     * Creates processor using given scanner to find line terminators and separators in memory-mapped files.
+     *
+     * @param scanner delimiter scanner
+     */
+    public PropertiesProcessor(DelimiterScanner scanner) {
+        this(MAX_WINDOW_SIZE, scanner);
+    }
+
+    PropertiesProcessor(int windowSize) {
+        this(windowSize, DelimiterScanner.getDefault());
+    }
+
+    PropertiesProcessor(int windowSize, DelimiterScanner scanner) {
+        this.windowSize = windowSize;
+        this.scanner = scanner;
+    }
+
     public String[] process(Path path) throws IOException {
-        return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
-                .filter(s -> !s.isEmpty() && !s.startsWith("#") && s.contains("="))
-                .map(s -> Stream.of("--" + s.substring(0, s.indexOf("=")), s.substring(s.indexOf("=") + 1)))
-                .flatMap(Function.identity())
-                .collect(Collectors.toList())
-                .toArray(new String[]{});
+        List<String> arguments = new ArrayList<>();
+        process(path, (line, separator) -> {
+            arguments.add("--" + line.substring(0, separator));
+            arguments.add(line.substring(separator + 1));
+        });
+        return arguments.toArray(new String[arguments.size()]);
+    }
+
+    /**
+     * Reads properties file and passes each line in key=value format to given consumer, in file order. Empty lines,
+     * comments (starting with #) and lines without = character are skipped.
+     *
+     * @param path     path to properties file
+     * @param consumer consumer of key=value lines
+     * @throws IOException if any I/O errors occurs during file read
+     */
+    public void process(Path path, PropertyConsumer consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                int separator = line.indexOf('=');
+                if (separator >= 0 && !line.startsWith("#")) {
+                    consumer.accept(line, separator);
+                }
+            }
+        }
+    }
+
+    /**
+     * Memory-maps properties file and passes key and value of each line in key=value format to given consumer,
+     * in file order. Lines are filtered the same way as by {@link #process(Path, PropertyConsumer)}.
+     * <p/>
+     * Mapped bytes are not decoded up front. Key and value are passed as views of the mapped UTF-8 bytes which are
+     * reused between lines; characters of ASCII views are read directly from the mapping and a view is decoded
+     * into a String only when it is not ASCII or when its toString method is called. Unknown keys thus cost a scan
+     * only. Files larger than 2GB are mapped in consecutive windows.
+     *
+     * @param path     path to properties file
+     * @param consumer consumer of keys and values
+     * @throws IOException if any I/O errors occurs during file read or when a single line is longer than 2GB
+     */
+    public void processMapped(Path path, MappedPropertyConsumer consumer) throws IOException {
+        ByteRegion key = new ByteRegion();
+        ByteRegion value = new ByteRegion();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = 0;
+            while (offset < size) {
+                long remaining = size - offset;
+                boolean last = remaining <= windowSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, last ? remaining : windowSize);
+                int processed = processLines(buffer, last, key, value, consumer, scanner);
+                if (processed == 0 && !last) {
+                    throw new IOException("Line longer than " + windowSize + " bytes at offset " + offset + " of " + path);
+                }
+                offset += processed;
+            }
+        }
+    }
+
+    /**
+     * Processes properties file in parallel. The file is split at line boundaries into chunks which are
+     * memory-mapped and scanned by tasks of given pool. Keys are resolved to indices by given resolver, which is
+     * called concurrently. When all chunks are scanned, given consumer is called once per resolved index, in index
+     * order and on the calling thread, with the value of the last line of that index in file order. Lines are
+     * filtered the same way as by {@link #process(Path, PropertyConsumer)}.
+     * <p/>
+     * Values are decoded only for the last line of each index.
+     *
+     * @param path     path to properties file
+     * @param pool     pool running chunk tasks
+     * @param keys     number of indices returned by resolver
+     * @param resolver thread-safe resolver of key index
+     * @param consumer consumer of the last value of each index
+     * @throws IOException if any I/O errors occurs during file read or when a single line is longer than 1GB
+     */
+    public void processParallel(Path path, ForkJoinPool pool, int keys, KeyResolver resolver,
+                                IndexedPropertyConsumer consumer) throws IOException {
+        List<ForkJoinTask<PropertiesChunk>> tasks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkSize = Math.min(MAX_CHUNK_SIZE,
+                    Math.max(MIN_CHUNK_SIZE, size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+            chunkSize = Math.min(chunkSize, windowSize / 2);
+            for (long start = 0; start < size; ) {
+                long end = start + chunkSize >= size ? size : findLineStart(channel, start + chunkSize);
+                if (end - start > windowSize) {
+                    throw new IOException("Line too long at offset " + (start + chunkSize) + " of " + path);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                tasks.add(pool.submit((Callable<PropertiesChunk>) new PropertiesChunk(buffer, keys, resolver, scanner)));
+                start = end;
+            }
+
+            int[] occurrences = new int[keys];
+            PropertiesChunk[] lastChunks = new PropertiesChunk[keys];
+            for (ForkJoinTask<PropertiesChunk> task : tasks) {
+                PropertiesChunk chunk = getChunk(task);
+                for (int index = 0; index < keys; index++) {
+                    if (chunk.occurrences[index] > 0) {
+                        occurrences[index] += chunk.occurrences[index];
+                        lastChunks[index] = chunk;
+                    }
+                }
+            }
+            for (int index = 0; index < keys; index++) {
+                if (lastChunks[index] != null) {
+                    consumer.accept(index, occurrences[index], lastChunks[index].getValue(index));
+                }
+            }
+        } finally {
+            for (ForkJoinTask<PropertiesChunk> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Finds start of the first line that begins at or after given position. A position after \r of \r\n
+     * terminator is accepted as well, it starts an empty line which is ignored.
+     */
+    static long findLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BOUNDARY_BLOCK_SIZE);
+        long current = position - 1;
+        while (true) {
+            ((Buffer) block).clear();
+            int read = channel.read(block, current);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int index = 0; index < read; index++) {
+                byte value = block.get(index);
+                if (value == '\n' || value == '\r') {
+                    return current + index + 1;
+                }
+            }
+            current += read;
+        }
+    }
+
+    private static PropertiesChunk getChunk(ForkJoinTask<PropertiesChunk> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing properties");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Scans complete lines of given buffer.
+     *
+     * @return number of bytes of processed lines; the rest of buffer is an incomplete line unless buffer is last
+     */
+    private static int processLines(ByteBuffer buffer, boolean last, ByteRegion key, ByteRegion value,
+                                    MappedPropertyConsumer consumer, DelimiterScanner scanner) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int separator = -1;
+            int lineEnd = scanner.scan(buffer, lineStart, limit, true);
+            if (lineEnd < limit && buffer.get(lineEnd) == '=') {
+                separator = lineEnd;
+                lineEnd = scanner.scan(buffer, separator + 1, limit, false);
+            }
+            if (lineEnd == limit && !last) {
+                return lineStart;
+            }
+            if (separator >= 0 && buffer.get(lineStart) != '#') {
+                key.reset(buffer, lineStart, separator);
+                value.reset(buffer, separator + 1, lineEnd);
+                consumer.accept(key, value);
+            }
+            if (lineEnd + 1 < limit && buffer.get(lineEnd) == '\r' && buffer.get(lineEnd + 1) == '\n') {
+                lineEnd++;
+            } else if (lineEnd + 1 == limit && buffer.get(lineEnd) == '\r' && !last) {
+                // "\r\n" may be split between windows
+                return lineStart;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return limit;
+    }
+
+    /**
+     * Consumer of a single key=value line. Key and value are given as regions of the line, so they can be matched
+     * without creating substrings.
+     */
+    public interface PropertyConsumer {
+
+        /**
+         * Accepts key=value line.
+         *
+         * @param line      whole line
+         * @param separator index of the first = character, key ends before it and value starts after it
+         */
+        void accept(String line, int separator);
+    }
+
+    /**
+     * Resolver of index of a key, used by parallel processing.
+     */
+    public interface KeyResolver {
+
+        /**
+         * Resolves key index. Called concurrently from multiple threads.
+         *
+         * @param key key view, valid only during this call
+         * @return index in range of 0 to number of keys or negative value to ignore the key
+         */
+        int resolve(CharSequence key);
+    }
+
+    /**
+     * Consumer of the result of parallel processing.
+     */
+    public interface IndexedPropertyConsumer {
+
+        /**
+         * Accepts the last value of a key index.
+         *
+         * @param index       key index
+         * @param occurrences number of lines of this index in the file
+         * @param value       value of the last line of this index
+         */
+        void accept(int index, int occurrences, String value);
+    }
+
+    /**
+     * Consumer of key and value of a memory-mapped key=value line.
+     */
+    public interface MappedPropertyConsumer {
+
+        /**
+         * Accepts key and value of a line. Both sequences are views valid only during this call, use their
+         * toString method to keep a value.
+         *
+         * @param key   key of line
+         * @param value value of line, decoded only on demand
+         */
+        void accept(CharSequence key, CharSequence value);
+    }
+
+    /**
+     * Reusable view of UTF-8 bytes as characters. ASCII content is read directly from the buffer, other content is
+     * decoded once on first access.
+     */
+    static final class ByteRegion implements CharSequence {
+
+        private ByteBuffer buffer;
+        private int from;
+        private int to;
+        private Boolean ascii;
+        private String decoded;
+
+        void reset(ByteBuffer buffer, int from, int to) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.decoded = null;
+            this.ascii = null;
+        }
+
+        /**
+         * Checks region content on first access, so regions which are never read are not scanned.
+         */
+        private boolean isAscii() {
+            if (ascii == null) {
+                boolean result = true;
+                for (int index = from; index < to && result; index++) {
+                    result = buffer.get(index) >= 0;
+                }
+                ascii = result;
+            }
+            return ascii;
+        }
+
+        @Override
+        public int length() {
+            return isAscii() ? to - from : toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return isAscii() ? (char) buffer.get(from + index) : toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (isAscii() && decoded == null) {
+                byte[] bytes = new byte[end - start];
+                for (int index = 0; index < bytes.length; index++) {
+                    bytes[index] = buffer.get(from + start + index);
+                }
+                return new String(bytes, StandardCharsets.US_ASCII);
+            }
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            if (decoded == null) {
+                byte[] bytes = new byte[to - from];
+                for (int index = 0; index < bytes.length; index++) {
+                    bytes[index] = buffer.get(from + index);
+                }
+                decoded = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return decoded;
+        }
+    }
+
+    /**
+     * Task scanning a single chunk of file. It keeps the number of lines and the value region of the last line of
+     * each key index.
+     */
+    private static final class PropertiesChunk implements Callable<PropertiesChunk>, MappedPropertyConsumer {
+
+        private final ByteBuffer buffer;
+        private final KeyResolver resolver;
+        private final DelimiterScanner scanner;
+        private final int[] occurrences;
+        private final int[] valueStarts;
+        private final int[] valueEnds;
+
+        private PropertiesChunk(ByteBuffer buffer, int keys, KeyResolver resolver, DelimiterScanner scanner) {
+            this.buffer = buffer;
+            this.resolver = resolver;
+            this.scanner = scanner;
+            this.occurrences = new int[keys];
+            this.valueStarts = new int[keys];
+            this.valueEnds = new int[keys];
+        }
+
+        @Override
+        public PropertiesChunk call() {
+            processLines(buffer, true, new ByteRegion(), new ByteRegion(), this, scanner);
+            return this;
+        }
+
+        @Override
+        public void accept(CharSequence key, CharSequence value) {
+            int index = resolver.resolve(key);
+            if (index >= 0) {
+                ByteRegion region = (ByteRegion) value;
+                occurrences[index]++;
+                valueStarts[index] = region.from;
+                valueEnds[index] = region.to;
+            }
+        }
+
+        private String getValue(int index) {
+            ByteRegion value = new ByteRegion();
+            value.reset(buffer, valueStarts[index], valueEnds[index]);
+            return value.toString();
+        }
     }
 }
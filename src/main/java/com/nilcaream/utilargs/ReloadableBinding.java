@@ -0,0 +1,265 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.core.BindingPlan;
+import com.nilcaream.utilargs.core.OptionBinding;
+import com.nilcaream.utilargs.model.Option;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Binding of a properties file which is reloaded when the file changes. The file is watched with a
+ * {@link WatchService}; when its size or modification time differ from the current snapshot, it is bound into a
+ * fresh wrapper instance, the same way as by {@link UtilArgs#process(Path, Object)}, and published atomically.
+ * <p/>
+ * Readers get the current wrapper with a single volatile read and never see a partially bound instance. Published
+ * wrappers must not be modified. Listeners are notified on the watching thread with the options of changed values.
+ * Failed reloads (e.g. of a file being replaced) keep the current snapshot. Other failures of the watching thread,
+ * e.g. of the wrapper factory or of a listener, are passed to its uncaught exception handler and the file is still
+ * watched.
+ *
+ * @param <T> wrapper type
+ */
+public class ReloadableBinding<T> implements Closeable {
+
+    private final Path path;
+    private final Supplier<T> factory;
+    private final List<ChangeListener<T>> listeners = new CopyOnWriteArrayList<>();
+    private WatchService watchService;
+    private Thread watcher;
+
+    private volatile Snapshot<T> snapshot;
+
+    private ReloadableBinding(Path path, Supplier<T> factory) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.factory = factory;
+        this.snapshot = load();
+    }
+
+    /**
+     * Binds given properties file without watching it. The file is reloaded only by calls to {@link #reload()},
+     * e.g. from a scheduled task.
+     *
+     * @param path    path to properties file
+     * @param factory factory of new wrapper instances, called on every reload
+     * @param <T>     wrapper type
+     * @return binding of the current file content
+     * @throws IOException if the file can not be read
+     */
+    public static <T> ReloadableBinding<T> load(Path path, Supplier<T> factory) throws IOException {
+        return new ReloadableBinding<>(path, factory);
+    }
+
+    /**
+     * Binds given properties file and starts watching it for changes.
+     *
+     * @param path    path to properties file
+     * @param factory factory of new wrapper instances, called on every reload
+     * @param <T>     wrapper type
+     * @return started binding, to be closed when no longer needed
+     * @throws IOException if the file can not be read or watched
+     */
+    public static <T> ReloadableBinding<T> watch(Path path, Supplier<T> factory) throws IOException {
+        ReloadableBinding<T> binding = new ReloadableBinding<>(path, factory);
+        binding.watchService = binding.path.getFileSystem().newWatchService();
+        try {
+            binding.path.getParent().register(binding.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            binding.watchService.close();
+            throw e;
+        }
+        binding.watcher = new Thread(binding::watch, "util-args-reload-" + binding.path.getFileName());
+        binding.watcher.setDaemon(true);
+        binding.watcher.start();
+        return binding;
+    }
+
+    /**
+     * Gets the current wrapper.
+     *
+     * @return not-null, fully bound wrapper
+     */
+    public T get() {
+        return snapshot.wrapper;
+    }
+
+    /**
+     * Gets result of binding of the current wrapper, e.g. to check its binding errors.
+     *
+     * @return not-null result
+     */
+    public UtilArgs getUtilArgs() {
+        return snapshot.utilArgs;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void addListener(ChangeListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChangeListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Reloads the file if its size or modification time changed. Called by the watching thread on file events, can
+     * also be called directly. All listeners are notified even if some of them fail.
+     *
+     * @return true if a new wrapper was published
+     * @throws IOException if the file can not be read
+     * @throws RuntimeException first failure of a listener, with failures of other listeners suppressed
+     */
+    public synchronized boolean reload() throws IOException {
+        Snapshot<T> previous = snapshot;
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (attributes.size() == previous.size && attributes.lastModifiedTime().equals(previous.modified)) {
+            return false;
+        }
+        Snapshot<T> current = load();
+        snapshot = current;
+
+        Set<Option> changed = getChangedOptions(previous.wrapper, current.wrapper);
+        if (!changed.isEmpty()) {
+            RuntimeException failure = null;
+            for (ChangeListener<T> listener : listeners) {
+                try {
+                    listener.changed(previous.wrapper, current.wrapper, changed);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops watching the file, if it is watched. The last published wrapper remains available.
+     *
+     * @throws IOException if watch service can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.interrupt();
+            watchService.close();
+        }
+    }
+
+    private Snapshot<T> load() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        T wrapper = factory.get();
+        UtilArgs utilArgs = UtilArgs.process(path, wrapper);
+        return new Snapshot<>(wrapper, utilArgs, attributes.size(), attributes.lastModifiedTime());
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean affected = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    affected |= event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context());
+                }
+                if (affected) {
+                    try {
+                        reload();
+                    } catch (IOException e) {
+                        // file is being replaced, the next event reloads it
+                    } catch (RuntimeException e) {
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private static Set<Option> getChangedOptions(Object previous, Object current) {
+        BindingPlan plan = BindingPlan.of(current.getClass());
+        Set<Option> changed = new LinkedHashSet<>();
+        for (int index = 0; index < plan.size(); index++) {
+            OptionBinding binding = plan.get(index);
+            Field field = binding.getField();
+            field.setAccessible(true);
+            try {
+                if (!Objects.deepEquals(field.get(previous), field.get(current))) {
+                    changed.add(binding.getOption());
+                }
+            } catch (IllegalAccessException e) {
+                changed.add(binding.getOption());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Listener of published wrappers.
+     *
+     * @param <T> wrapper type
+     */
+    public interface ChangeListener<T> {
+
+        /**
+         * Called after a new wrapper with different values was published.
+         *
+         * @param previous previous wrapper
+         * @param current  published wrapper
+         * @param changed  options of fields which values differ, in declaration order
+         */
+        void changed(T previous, T current, Set<Option> changed);
+    }
+
+    private static final class Snapshot<T> {
+
+        private final T wrapper;
+        private final UtilArgs utilArgs;
+        private final long size;
+        private final FileTime modified;
+
+        private Snapshot(T wrapper, UtilArgs utilArgs, long size, FileTime modified) {
+            this.wrapper = wrapper;
+            this.utilArgs = utilArgs;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+}
@@ -16,11 +16,21 @@
 
 package com.nilcaream.utilargs;
 
+import com.nilcaream.utilargs.core.ArgumentBinder;
+import com.nilcaream.utilargs.core.BindingException;
+import com.nilcaream.utilargs.core.PrimitiveBinder;
 import com.nilcaream.utilargs.core.StaticValueOfBinder;
 import com.nilcaream.utilargs.core.StringConstructorBinder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * Main, single-use, stateful class for processing command line arguments and automatic binding
@@ -29,12 +39,23 @@ import java.nio.file.Path;
  * <p/>
  * For more control over the binding process consider using {@link ArgumentProcessor}.
  * <p/>
+ * Wrapper classes processed at compile time by util-args-processor are bound by their generated binders,
+ * without reflection.
+ * <p/>
+ * Very long values of int[], long[] and double[] options are parsed in parallel by
+ * {@link ForkJoinPool#commonPool() common pool}, see {@link ArgumentProcessor#setValuesPool(ForkJoinPool)}.
+ * <p/>
  * Krzysztof Smigielski 10/28/12 7:29 PM
  *
  * @see <a href="http://pubs.opengroup.org/onlinepubs/9699919799/basedefs/V1_chap12.html">http://pubs.opengroup.org/onlinepubs/9699919799/basedefs/V1_chap12.html</a>
  */
 public class UtilArgs {
 
+    static final List<ArgumentBinder> BINDERS = Collections.unmodifiableList(Arrays.asList(
+            new PrimitiveBinder(),
+            new StaticValueOfBinder(),
+            new StringConstructorBinder()));
+
     private String[] arguments;
     private Object wrapper;
     private ArgumentProcessor processor = new ArgumentProcessor();
@@ -54,12 +75,50 @@ public class UtilArgs {
     }
 
     /**
-     * Reads provided path as a properties file (in key=value format) and transforms it into command-line-like
-     * arguments. Options are generated in long format (e.g. --name) based on keys in file. Lines that are not in
-     * key=value format are ignored. Generated arguments are processed as an equivalent of calling
-     * {@link UtilArgs#UtilArgs(String[], Object)} constructor.
+     * Resolves arguments of given command line, e.g. read from a log or an environment variable, and updates
+     * user-provided object fields. The line is split into arguments the way a POSIX shell does (see
+     * {@link CommandLineTokenizer}) while it is processed, without creating an array of all arguments;
+     * {@link #getArguments()} contains only operands.
      * <p/>
-     * It is not possible to provide an operand by calling this method.
+     * This method will never throw an exception when field binding process fails.
+     *
+     * @param commandLine command line
+     * @param wrapper     user-provided arguments wrapper
+     * @return associated {@link UtilArgs} instance
+     */
+    public static UtilArgs process(CharSequence commandLine, Object wrapper) {
+        UtilArgs utilArgs = new UtilArgs(new String[0], wrapper, false);
+        utilArgs.processor.initialize(commandLine, wrapper);
+        utilArgs.arguments = utilArgs.processor.getArguments();
+        return utilArgs;
+    }
+
+    /**
+     * Resolves NUL-separated UTF-8 arguments, e.g. contents of /proc/PID/cmdline, from position to limit of given
+     * buffer and updates user-provided object fields. Option names are matched against the bytes of the buffer and
+     * only option arguments and operands are decoded; {@link #getArguments()} contains only operands. The buffer is
+     * not modified.
+     * <p/>
+     * This method will never throw an exception when field binding process fails.
+     *
+     * @param arguments NUL-separated arguments, without the program name
+     * @param wrapper   user-provided arguments wrapper
+     * @return associated {@link UtilArgs} instance
+     * @see ArgumentProcessor#initialize(ByteBuffer, Object)
+     */
+    public static UtilArgs process(ByteBuffer arguments, Object wrapper) {
+        UtilArgs utilArgs = new UtilArgs(new String[0], wrapper, false);
+        utilArgs.processor.initialize(arguments, wrapper);
+        utilArgs.arguments = utilArgs.processor.getArguments();
+        return utilArgs;
+    }
+
+    /**
+     * Reads provided path as a properties file (in key=value format) and binds its values to options of long
+     * names equal to keys in file. Lines that are not in key=value format are ignored. The file is streamed line
+     * by line, values are bound the same way as arguments of {@link UtilArgs#UtilArgs(String[], Object)} constructor.
+     * <p/>
+     * It is not possible to provide an operand by calling this method and {@link #getArguments()} is empty.
      * <p/>
      * This method will never throw an exception when field binding process fails.
      *
@@ -69,7 +128,25 @@ public class UtilArgs {
      * @throws IOException if any I/O errors occurs during file read
      */
     public static UtilArgs process(Path path, Object wrapper) throws IOException {
-        return new UtilArgs(new PropertiesProcessor().process(path), wrapper);
+        UtilArgs utilArgs = new UtilArgs(new String[0], wrapper, false);
+        utilArgs.processor.initialize(path, wrapper);
+        return utilArgs;
+    }
+
+    /**
+     * Reads provided path as a properties file the same way as {@link #process(Path, Object)} does, splitting it into
+     * chunks processed in parallel by {@link ForkJoinPool#commonPool() common pool}. Meant for very large files.
+     *
+     * @param path path to properties file
+     * @param wrapper user-provided arguments wrapper
+     * @return associated {@link UtilArgs} instance
+     * @throws IOException if any I/O errors occurs during file read
+     */
+    public static UtilArgs processParallel(Path path, Object wrapper) throws IOException {
+        UtilArgs utilArgs = new UtilArgs(new String[0], wrapper, false);
+        utilArgs.processor.setPropertiesPool(ForkJoinPool.commonPool());
+        utilArgs.processor.initialize(path, wrapper);
+        return utilArgs;
     }
 
     /**
@@ -82,11 +159,18 @@ public class UtilArgs {
      * @param wrapper   user-provided arguments wrapper
      */
     public UtilArgs(String[] arguments, Object wrapper) {
+        this(arguments, wrapper, true);
+    }
+
+    private UtilArgs(String[] arguments, Object wrapper, boolean initialize) {
         this.arguments = arguments;
         this.wrapper = wrapper;
-        processor.getBinders().add(new StaticValueOfBinder());
-        processor.getBinders().add(new StringConstructorBinder());
-        processor.initialize(arguments, wrapper);
+        processor.setBinders(BINDERS);
+        processor.setGeneratedBinders(true);
+        processor.setValuesPool(ForkJoinPool.commonPool());
+        if (initialize) {
+            processor.initialize(arguments, wrapper);
+        }
     }
 
     /**
@@ -118,4 +202,38 @@ public class UtilArgs {
     public String getOperands() {
         return processor.getOperands();
     }
+
+    /**
+     * Gets operands as separate arguments, a read-only view of arguments array. Unlike {@link #getOperands()},
+     * operands containing spaces are kept intact and nothing is copied, so it is suited for long lists of operands,
+     * e.g. file names passed by xargs.
+     *
+     * @return not-null, read-only list
+     */
+    public List<String> getOperandList() {
+        return processor.getOperandList();
+    }
+
+    /**
+     * Gets stream of operands in which the "-" operand is replaced by operands read lazily from given input, e.g.
+     * for {@code find ... -print0 | tool -x -} pass {@link System#in} and {@link OperandReader#NUL}. Input is read
+     * through a bounded buffer while the stream is consumed, so any number of operands can be processed.
+     *
+     * @param input     input stream, not closed by the stream
+     * @param delimiter {@link OperandReader#NEWLINE} or {@link OperandReader#NUL}
+     * @return sequential stream of operands
+     */
+    public Stream<String> getOperandStream(InputStream input, byte delimiter) {
+        return processor.getOperandStream(input, delimiter);
+    }
+
+    /**
+     * Gets errors of arguments that were matched to wrapper fields but could not be converted to field type.
+     * Such fields are left unchanged.
+     *
+     * @return not-null list
+     */
+    public List<BindingException> getBindingErrors() {
+        return processor.getBindingErrors();
+    }
 }
@@ -21,10 +21,33 @@ import com.nilcaream.utilargs.model.Parameter;
 /**
  * Wrapper object fields binder.
  * <p/>
+ * Binders are asked once per field type whether they {@link #supports(Class) support} it, so that unsupported
+ * types never reach {@link #bind(Parameter, Object)}.
+ * <p/>
  * Krzysztof Smigielski 10/30/12 7:45 PM
  */
 public interface ArgumentBinder {
 
     void bind(Parameter parameter, Object wrapper) throws Exception;
 
+    /**
+     * Checks if this binder is able to bind fields of given type. Default implementation accepts all types, in which
+     * case the binder is probed by calling {@link #bind(Parameter, Object)}.
+     *
+     * @param type field type
+     * @return false if bind method would always fail for given type
+     */
+    default boolean supports(Class<?> type) {
+        return true;
+    }
+
+    /**
+     * Gets converter of arguments into instances of given type.
+     *
+     * @param type target type
+     * @return converter or null if this binder does not provide one for given type
+     */
+    default Converter getConverter(Class<?> type) {
+        return null;
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thread-safe cache of a value resolved from a list of binders, for a few lists at a time, so that processors using
+ * different lists of binders do not evict each other. Lists are matched by identity of their binders, compared by
+ * index, so lookups do not allocate and a list modified after its value was resolved is resolved again. The oldest
+ * entry is dropped when the cache is full.
+ *
+ * @param <T> type of resolved value
+ */
+abstract class BinderCache<T> {
+
+    static final int SIZE = 4;
+
+    private volatile List<Entry<T>> entries = Collections.emptyList();
+
+    /**
+     * Gets value resolved from given binders, resolving it if the list is not cached.
+     *
+     * @param binders available binders
+     * @return resolved value
+     */
+    final T get(List<ArgumentBinder> binders) {
+        List<Entry<T>> current = entries;
+        for (int index = 0; index < current.size(); index++) {
+            Entry<T> entry = current.get(index);
+            if (entry.matches(binders)) {
+                return entry.value;
+            }
+        }
+        T value = resolve(binders);
+        List<Entry<T>> updated = new ArrayList<>(SIZE);
+        updated.add(new Entry<>(binders, value));
+        updated.addAll(current.subList(0, Math.min(current.size(), SIZE - 1)));
+        entries = updated;
+        return value;
+    }
+
+    /**
+     * Resolves value from given binders.
+     *
+     * @param binders available binders
+     * @return resolved value, may be null
+     */
+    protected abstract T resolve(List<ArgumentBinder> binders);
+
+    private static final class Entry<T> {
+
+        private final ArgumentBinder[] binders;
+        private final T value;
+
+        private Entry(List<ArgumentBinder> binders, T value) {
+            this.binders = binders.toArray(new ArgumentBinder[binders.size()]);
+            this.value = value;
+        }
+
+        private boolean matches(List<ArgumentBinder> other) {
+            if (binders.length != other.size()) {
+                return false;
+            }
+            for (int index = 0; index < binders.length; index++) {
+                if (binders[index] != other.get(index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Parameter;
+
+/**
+ * Failure of binding a parameter argument to its field. This exception does not fill in its stack trace, so it is
+ * cheap to create for every invalid argument.
+ */
+public class BindingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Parameter parameter;
+
+    public BindingException(Parameter parameter, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.parameter = parameter;
+    }
+
+    /**
+     * Gets parameter which argument could not be bound.
+     *
+     * @return parameter with option, field and argument
+     */
+    public Parameter getParameter() {
+        return parameter;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Option;
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Immutable, thread-safe set of {@link OptionBinding} instances resolved from a wrapper class. Plans are computed
+ * once per class and cached in a {@link ClassValue} so they are released together with the wrapper class.
+ * <p/>
+ * When a {@link GeneratedBinder} of the wrapper class is present, the plan is built from it without scanning
+ * wrapper fields.
+ * <p/>
+ * Short options are resolved through a table indexed by option character and long options through an
+ * {@link OptionTrie}, so lookups do not build or hash key strings.
+ */
+public final class BindingPlan {
+
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return new BindingPlan(type, GeneratedBinder.find(type));
+        }
+    };
+
+    private static final int ASCII_SIZE = 128;
+
+    private final Class<?> type;
+    private final GeneratedBinder generatedBinder;
+    private final OperandsBinding operandsBinding;
+    private final OptionBinding[] bindings;
+    private final OptionBinding[] orderedBindings;
+    private final boolean multiValuedOptions;
+    private final Map<String, OptionBinding> optionNameToBinding;
+    private final OptionBinding[] asciiShortOptions = new OptionBinding[ASCII_SIZE];
+    private final Map<Character, OptionBinding> otherShortOptions = new HashMap<>();
+    private final OptionTrie longOptions = new OptionTrie();
+
+    private BindingPlan(Class<?> type, GeneratedBinder generatedBinder) {
+        this.type = type;
+        this.generatedBinder = generatedBinder;
+        this.operandsBinding = generatedBinder == null
+                ? OperandsBinding.find(type) : OperandsBinding.find(type, generatedBinder.getOperandsFieldName());
+
+        List<OptionBinding> resolved = new ArrayList<>();
+        if (generatedBinder != null) {
+            for (int index = 0; index < generatedBinder.size(); index++) {
+                resolved.add(new OptionBinding(index, generatedBinder.getOption(index), type,
+                        generatedBinder.getFieldName(index), generatedBinder.getFieldType(index)));
+            }
+        } else {
+            for (Field field : type.getDeclaredFields()) {
+                Option option = field.getAnnotation(Option.class);
+                if (option != null && (option.name() != 0 || !"".equals(option.longName()))) {
+                    resolved.add(new OptionBinding(resolved.size(), option, field));
+                }
+            }
+        }
+
+        Map<String, OptionBinding> index = new HashMap<>();
+        boolean multiValued = false;
+        for (OptionBinding binding : resolved) {
+            multiValued |= binding.isMultiValued();
+            Option option = binding.getOption();
+            if (option.name() != 0) {
+                index.put("-" + option.name(), binding);
+                if (option.name() < ASCII_SIZE) {
+                    asciiShortOptions[option.name()] = binding;
+                } else {
+                    otherShortOptions.put(option.name(), binding);
+                }
+            }
+            if (!"".equals(option.longName())) {
+                index.put("--" + option.longName(), binding);
+                longOptions.add(option.longName(), binding);
+            }
+        }
+        this.multiValuedOptions = multiValued;
+        this.bindings = resolved.toArray(new OptionBinding[resolved.size()]);
+        this.orderedBindings = bindings.clone();
+        Arrays.sort(orderedBindings, new Comparator<OptionBinding>() {
+            @Override
+            public int compare(OptionBinding first, OptionBinding second) {
+                return first.getOption().name() - second.getOption().name();
+            }
+        });
+        this.optionNameToBinding = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Gets cached plan of given wrapper class. The plan is resolved on first access.
+     *
+     * @param type wrapper class
+     * @return not-null plan
+     */
+    public static BindingPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets compile-time generated binder of the wrapper class.
+     *
+     * @return binder or null if the plan was resolved from wrapper fields
+     */
+    public GeneratedBinder getGeneratedBinder() {
+        return generatedBinder;
+    }
+
+    /**
+     * Gets binding of the {@link com.nilcaream.utilargs.model.Operands} annotated field of the wrapper class.
+     *
+     * @return binding or null if there is no such field
+     */
+    public OperandsBinding getOperandsBinding() {
+        return operandsBinding;
+    }
+
+    /**
+     * Checks if any option of the wrapper class is {@link OptionBinding#isMultiValued() multi-valued}.
+     *
+     * @return true if values of repeated options are accumulated
+     */
+    public boolean hasMultiValuedOptions() {
+        return multiValuedOptions;
+    }
+
+    public int size() {
+        return bindings.length;
+    }
+
+    public OptionBinding get(int index) {
+        return bindings[index];
+    }
+
+    /**
+     * Gets binding at given position in order of option names. Bindings with the same name (e.g. long-only
+     * options) keep their declaration order.
+     *
+     * @param position position in range of 0 to plan size
+     * @return not-null binding
+     */
+    public OptionBinding getOrdered(int position) {
+        return orderedBindings[position];
+    }
+
+    /**
+     * Gets binding by option key as used in command line, i.e. in "-n" or "--name" format.
+     *
+     * @param key option key with leading hyphens
+     * @return binding or null when not found
+     */
+    public OptionBinding get(String key) {
+        if (key.length() == 2 && key.charAt(0) == '-') {
+            return getShort(key.charAt(1));
+        } else if (key.startsWith("--")) {
+            return getLong(key, 2, false);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Gets binding of short option.
+     *
+     * @param name option name, without leading hyphen
+     * @return binding or null when not found
+     */
+    public OptionBinding getShort(char name) {
+        return name < ASCII_SIZE ? asciiShortOptions[name] : otherShortOptions.get(name);
+    }
+
+    /**
+     * Gets binding of long option which name is given by characters of an argument from given index to its end.
+     * With abbreviation enabled a unique prefix of a long name is accepted as well (as in getopt_long); an exact
+     * match takes precedence over other names starting with it.
+     *
+     * @param argument    argument to match
+     * @param from        index of the first character of long name, i.e. 2 for "--name" argument
+     * @param abbreviated true to accept unique prefixes
+     * @return binding or null when not found or when abbreviation is ambiguous
+     */
+    public OptionBinding getLong(CharSequence argument, int from, boolean abbreviated) {
+        return longOptions.find(argument, from, abbreviated);
+    }
+
+    /**
+     * Gets binding of long option which name is given by a region of characters, e.g. a key of "name=value" line.
+     *
+     * @param sequence    characters to match
+     * @param from        index of the first character of long name
+     * @param to          index after the last character of long name
+     * @param abbreviated true to accept unique prefixes
+     * @return binding or null when not found or when abbreviation is ambiguous
+     * @see #getLong(CharSequence, int, boolean)
+     */
+    public OptionBinding getLong(CharSequence sequence, int from, int to, boolean abbreviated) {
+        return longOptions.find(sequence, from, to, abbreviated);
+    }
+
+    /**
+     * Gets read-only mapping of option keys (in "-n" and "--name" format) to bindings.
+     *
+     * @return not-null map
+     */
+    public Map<String, OptionBinding> getOptionNameToBinding() {
+        return optionNameToBinding;
+    }
+
+    /**
+     * Creates new array of empty parameters, one per binding.
+     *
+     * @return parameters indexed by {@link OptionBinding#getIndex()}
+     */
+    public Parameter[] createParameters() {
+        Parameter[] parameters = new Parameter[bindings.length];
+        for (OptionBinding binding : bindings) {
+            parameters[binding.getIndex()] = binding.createParameter();
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only list converting elements of a list of arguments on their first access. Converted values are cached,
+ * so arguments that are never accessed are not converted at all.
+ * <p/>
+ * The list is thread-safe, as wrappers holding it may be passed between threads. The cache is allocated in chunks
+ * of {@value #CHUNK_SIZE} values when they are first accessed, so reading a few elements of a long list does not
+ * allocate a cache of its full size. Concurrent first reads of an element may convert it more than once, all
+ * readers get the same value.
+ */
+final class ConvertingList<E> extends AbstractList<E> implements RandomAccess {
+
+    static final int CHUNK_SIZE = 1024;
+
+    private final List<String> arguments;
+    private final Converter converter;
+    private final String fieldName;
+    private final AtomicReferenceArray<AtomicReferenceArray<Object>> chunks;
+
+    ConvertingList(List<String> arguments, Converter converter, String fieldName) {
+        this.arguments = arguments;
+        this.converter = converter;
+        this.fieldName = fieldName;
+        this.chunks = new AtomicReferenceArray<>((arguments.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+     * Gets converted argument at given index, converting it on the first call.
+     *
+     * @param index index of argument
+     * @return converted value
+     * @throws IllegalArgumentException if argument can not be converted
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        String argument = arguments.get(index);
+        AtomicReferenceArray<Object> chunk = chunks.get(index / CHUNK_SIZE);
+        if (chunk == null) {
+            chunks.compareAndSet(index / CHUNK_SIZE, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(index / CHUNK_SIZE);
+        }
+        Object value = chunk.get(index % CHUNK_SIZE);
+        if (value == null) {
+            try {
+                value = converter.convert(argument);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid operand " + index + " of field " + fieldName, e);
+            }
+            if (!chunk.compareAndSet(index % CHUNK_SIZE, null, value)) {
+                value = chunk.get(index % CHUNK_SIZE);
+            }
+        }
+        return (E) value;
+    }
+
+    @Override
+    public int size() {
+        return arguments.size();
+    }
+}
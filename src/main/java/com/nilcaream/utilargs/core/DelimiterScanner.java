@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Scanner of line terminators and key=value separators in UTF-8 bytes of properties files. This class scans
+ * one byte at a time.
+ * <p/>
+ * On Java 17 and later the multi-release JAR contains a scanner built on the incubating Vector API, which compares
+ * a whole vector of bytes (32 or 64 depending on the CPU) at a time. It is used as the {@link #getDefault() default}
+ * scanner when the JVM is started with {@code --add-modules jdk.incubator.vector}, otherwise this scanner is used.
+ */
+public class DelimiterScanner {
+
+    private static final String VECTOR_SCANNER = "com.nilcaream.utilargs.core.VectorDelimiterScanner";
+    private static final DelimiterScanner SCALAR = new DelimiterScanner();
+    private static final DelimiterScanner DEFAULT = load();
+
+    DelimiterScanner() {
+    }
+
+    /**
+     * Gets byte-at-a-time scanner, available on all Java versions.
+     *
+     * @return not-null scanner
+     */
+    public static DelimiterScanner getScalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Gets the fastest scanner available in the running JVM.
+     *
+     * @return vectorized scanner when available, scalar scanner otherwise
+     */
+    public static DelimiterScanner getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Finds the first line terminator (\n or \r) or, optionally, the first = character in given range of buffer.
+     *
+     * @param buffer    buffer to scan, its position and limit are ignored
+     * @param from      index of the first byte to scan
+     * @param to        index after the last byte to scan
+     * @param separator true to find = character as well
+     * @return index of found byte or {@code to} when there is none
+     */
+    public int scan(ByteBuffer buffer, int from, int to, boolean separator) {
+        for (int index = from; index < to; index++) {
+            byte value = buffer.get(index);
+            if (value == '\n' || value == '\r' || (separator && value == '=')) {
+                return index;
+            }
+        }
+        return to;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+    private static DelimiterScanner load() {
+        try {
+            DelimiterScanner scanner = (DelimiterScanner) Class.forName(VECTOR_SCANNER).getDeclaredConstructor().newInstance();
+            // verify on a sample that vector operations are supported by this JVM
+            ByteBuffer sample = ByteBuffer.allocate(256);
+            sample.put(200, (byte) '=');
+            sample.put(250, (byte) '\n');
+            if (scanner.scan(sample, 1, 256, true) == 200 && scanner.scan(sample, 1, 256, false) == 250) {
+                return scanner;
+            }
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Java 8 or Vector API module not added
+        }
+        return SCALAR;
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conversion of arguments into elements of an array or list field, shared by {@link OperandsBinding} and
+ * {@link OptionBinding#isMultiValued() multi-valued} options.
+ * <p/>
+ * Elements are counted before they are converted, so arrays and lists are allocated once with their final size.
+ * Elements of int, long and double arrays are parsed directly from the arguments, without substrings or boxing, and
+ * very long arguments of such elements may be parsed in parallel.
+ */
+final class Elements {
+
+    static final char SEPARATOR = ',';
+    static final String FILE_PREFIX = "@";
+
+    private static final int MIN_CHUNK_SIZE = 1 << 13;
+
+    private final Class<?> type;
+    private final boolean array;
+
+    private final BinderCache<Converter> converters = new BinderCache<Converter>() {
+        @Override
+        protected Converter resolve(List<ArgumentBinder> binders) {
+            for (ArgumentBinder binder : binders) {
+                if (binder.supports(type)) {
+                    Converter converter = binder.getConverter(type);
+                    if (converter != null) {
+                        return converter;
+                    }
+                }
+            }
+            return null;
+        }
+    };
+
+    Elements(Field field) {
+        this.array = field.getType().isArray();
+        this.type = array ? field.getType().getComponentType() : getElementType(field.getGenericType());
+    }
+
+    /**
+     * Checks if given field type is an array, {@link List}, {@link java.util.Collection} or {@link Iterable}.
+     *
+     * @param type field type
+     * @return true if elements can be bound to a field of given type
+     */
+    static boolean isSupported(Class<?> type) {
+        return type.isArray() || (type.isInterface() && type.isAssignableFrom(List.class));
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    boolean isArray() {
+        return array;
+    }
+
+    /**
+     * Gets converter of the first of given binders that supports element type. The result is cached per list
+     * of binders, see {@link BinderCache}.
+     *
+     * @param binders available binders
+     * @return converter or null if no binder supports element type
+     */
+    Converter getConverter(List<ArgumentBinder> binders) {
+        return converters.get(binders);
+    }
+
+    /**
+     * Checks if elements are int, long or double values of an array, which can be parsed in parallel and read from
+     * files.
+     *
+     * @return true for int[], long[] and double[] fields
+     */
+    boolean isNumeric() {
+        return type == int.class || type == long.class || type == double.class;
+    }
+
+    /**
+     * Converts given arguments into an array or a modifiable list of field type.
+     *
+     * @param arguments arguments to convert
+     * @param split     true to split arguments at {@link #SEPARATOR}, false to convert each argument as a whole
+     * @param converter converter of element type, used unless elements are {@link #isNumeric() numeric}
+     * @return array or list of converted elements
+     * @throws InvalidElementException if an element can not be converted
+     */
+    Object convert(List<String> arguments, boolean split, Converter converter) throws InvalidElementException {
+        return convert(arguments, split, converter, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Converts given arguments into an array or a modifiable list of field type. With a pool given, split
+     * arguments of {@link #isNumeric() numeric} elements of at least given length are divided into chunks at
+     * separators and the chunks are parsed by the pool straight into the array. Shorter arguments are parsed by
+     * the calling thread.
+     *
+     * @param arguments         arguments to convert
+     * @param split             true to split arguments at {@link #SEPARATOR}, false to convert each argument as a whole
+     * @param converter         converter of element type, used unless elements are numeric
+     * @param pool              pool to parse long arguments in or null to parse all arguments on the calling thread
+     * @param parallelThreshold minimal length of an argument parsed in parallel
+     * @return array or list of converted elements
+     * @throws InvalidElementException if an element can not be converted
+     */
+    Object convert(List<String> arguments, boolean split, Converter converter, ForkJoinPool pool, int parallelThreshold)
+            throws InvalidElementException {
+        boolean parallel = split && pool != null && isNumeric();
+        Chunks[] chunks = null;
+        int size = 0;
+        for (int position = 0; position < arguments.size(); position++) {
+            String argument = arguments.get(position);
+            if (parallel && argument.length() >= parallelThreshold) {
+                if (chunks == null) {
+                    chunks = new Chunks[arguments.size()];
+                }
+                chunks[position] = new Chunks(argument, Math.max(MIN_CHUNK_SIZE, argument.length() / (pool.getParallelism() * 4)));
+                size += chunks[position].count;
+            } else {
+                size += split ? count(argument) : 1;
+            }
+        }
+        Object values = array ? Array.newInstance(type, size) : new ArrayList<>(size);
+        int index = 0;
+        for (int position = 0; position < arguments.size(); position++) {
+            String argument = arguments.get(position);
+            if (chunks != null && chunks[position] != null) {
+                ChunkTask task = new ChunkTask(values, argument, chunks[position], index, 0, chunks[position].size);
+                pool.invoke(task);
+                if (task.failure.get() != null) {
+                    throw task.failure.get();
+                }
+                index += chunks[position].count;
+            } else {
+                index = convert(values, index, argument, 0, argument.length(), split, converter);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Converts elements of given region of an argument.
+     *
+     * @return index after the last converted element
+     */
+    private int convert(Object values, int index, String argument, int from, int end, boolean split, Converter converter)
+            throws InvalidElementException {
+        while (true) {
+            int to = split ? argument.indexOf(SEPARATOR, from) : -1;
+            if (to < 0 || to > end) {
+                to = end;
+            }
+            try {
+                set(values, index, argument, from, to, converter);
+            } catch (Exception e) {
+                throw new InvalidElementException(index, argument.substring(from, to), e);
+            }
+            index++;
+            if (to == end) {
+                return index;
+            }
+            from = to + 1;
+        }
+    }
+
+    /**
+     * Replaces arguments starting with @ by values read from the file named by the rest of argument. Values in
+     * the file are separated by commas or line breaks, empty lines are ignored.
+     *
+     * @param arguments arguments to expand
+     * @return given list if none of arguments names a file, otherwise a new list
+     * @throws IOException if a file can not be read
+     */
+    static List<String> readFiles(List<String> arguments) throws IOException {
+        List<String> expanded = null;
+        for (int position = 0; position < arguments.size(); position++) {
+            String argument = arguments.get(position);
+            if (argument.startsWith(FILE_PREFIX)) {
+                if (expanded == null) {
+                    expanded = new ArrayList<>(arguments);
+                }
+                expanded.set(position, readValues(Paths.get(argument.substring(FILE_PREFIX.length()))));
+            }
+        }
+        return expanded == null ? arguments : expanded;
+    }
+
+    private static String readValues(Path path) throws IOException {
+        char[] values = new String(Files.readAllBytes(path), StandardCharsets.UTF_8).toCharArray();
+        int length = 0;
+        boolean lineBreak = false;
+        for (char value : values) {
+            if (value == '\n' || value == '\r') {
+                lineBreak = length > 0;
+            } else {
+                if (lineBreak && value != SEPARATOR && values[length - 1] != SEPARATOR) {
+                    values[length++] = SEPARATOR;
+                }
+                lineBreak = false;
+                values[length++] = value;
+            }
+        }
+        return new String(values, 0, length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void set(Object values, int index, String argument, int from, int to, Converter converter) throws Exception {
+        if (type == int.class) {
+            ((int[]) values)[index] = Numbers.parseInt(argument, from, to);
+        } else if (type == long.class) {
+            ((long[]) values)[index] = Numbers.parseLong(argument, from, to);
+        } else if (type == double.class) {
+            ((double[]) values)[index] = Numbers.parseDouble(argument, from, to);
+        } else if (array) {
+            Array.set(values, index, converter.convert(argument.substring(from, to)));
+        } else {
+            ((List<Object>) values).add(converter.convert(argument.substring(from, to)));
+        }
+    }
+
+    private static int count(String argument) {
+        int count = 1;
+        for (int index = argument.indexOf(SEPARATOR); index >= 0; index = argument.indexOf(SEPARATOR, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static Class<?> getElementType(Type type) {
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof WildcardType) {
+                argument = ((WildcardType) argument).getUpperBounds()[0];
+            }
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+        }
+        return String.class;
+    }
+
+    /**
+     * Failure of converting a single element. This exception does not fill in its stack trace.
+     */
+    static final class InvalidElementException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final String value;
+
+        private InvalidElementException(int index, String value, Throwable cause) {
+            super("Invalid element " + index + ": " + value, cause, false, false);
+            this.index = index;
+            this.value = value;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Regions of a single argument parsed in parallel. Each chunk starts after a separator and ends at a separator
+     * (or at the end of argument), so no element is split between chunks.
+     */
+    private static final class Chunks {
+
+        private final int[] starts;
+        private final int[] indices;
+        private final int size;
+        private final int count;
+
+        /**
+         * Finds chunks of at least given length in a single pass over separators of argument, counting elements of
+         * every chunk on the way.
+         */
+        private Chunks(String argument, int chunkSize) {
+            starts = new int[argument.length() / chunkSize + 2];
+            indices = new int[starts.length];
+            int chunks = 1;
+            int elements = 1;
+            int next = chunkSize;
+            for (int index = argument.indexOf(SEPARATOR); index >= 0; index = argument.indexOf(SEPARATOR, index + 1)) {
+                if (index >= next) {
+                    starts[chunks] = index + 1;
+                    indices[chunks] = elements;
+                    chunks++;
+                    next = index + 1 + chunkSize;
+                }
+                elements++;
+            }
+            starts[chunks] = argument.length() + 1;
+            this.size = chunks;
+            this.count = elements;
+        }
+    }
+
+    /**
+     * Parses a range of chunks of an argument, splitting it in halves down to single chunks. The failure of the
+     * lowest element index is kept, so it does not depend on the order in which chunks are parsed.
+     */
+    private final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object values;
+        private final String argument;
+        private final Chunks chunks;
+        private final int offset;
+        private final int from;
+        private final int to;
+        private final AtomicReference<InvalidElementException> failure;
+
+        private ChunkTask(Object values, String argument, Chunks chunks, int offset, int from, int to) {
+            this(values, argument, chunks, offset, from, to, new AtomicReference<InvalidElementException>());
+        }
+
+        private ChunkTask(Object values, String argument, Chunks chunks, int offset, int from, int to,
+                          AtomicReference<InvalidElementException> failure) {
+            this.values = values;
+            this.argument = argument;
+            this.chunks = chunks;
+            this.offset = offset;
+            this.from = from;
+            this.to = to;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    convert(values, offset + chunks.indices[from], argument, chunks.starts[from], chunks.starts[to] - 1, true, null);
+                } catch (InvalidElementException e) {
+                    InvalidElementException current = failure.get();
+                    while ((current == null || e.getIndex() < current.getIndex()) && !failure.compareAndSet(current, e)) {
+                        current = failure.get();
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(values, argument, chunks, offset, from, middle, failure),
+                        new ChunkTask(values, argument, chunks, offset, middle, to, failure));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.lang.reflect.Field;
+
+/**
+ * Binder of flag options. Boolean fields are set to true and {@link com.nilcaream.utilargs.model.Option#counted()
+ * counted} flags to the number of {@link Parameter#getOccurrences() occurrences}, without parsing the argument.
+ * Primitive fields are written with typed field setters.
+ */
+public class FlagBinder implements ArgumentBinder {
+
+    @Override
+    public void bind(Parameter parameter, Object wrapper) throws Exception {
+        Field field = parameter.getField();
+        Class<?> type = field.getType();
+        int occurrences = parameter.getOccurrences();
+        field.setAccessible(true);
+        if (!parameter.getOption().counted()) {
+            if (type == boolean.class) {
+                field.setBoolean(wrapper, true);
+            } else if (type == Boolean.class) {
+                field.set(wrapper, Boolean.TRUE);
+            } else {
+                throw new BindingException(parameter, "Flag field " + field.getName() + " is not boolean", null);
+            }
+        } else if (type == int.class) {
+            field.setInt(wrapper, occurrences);
+        } else if (type == long.class) {
+            field.setLong(wrapper, occurrences);
+        } else if (type == Integer.class) {
+            field.set(wrapper, occurrences);
+        } else if (type == Long.class) {
+            field.set(wrapper, (long) occurrences);
+        } else if ((type == short.class || type == Short.class) && occurrences == (short) occurrences) {
+            field.set(wrapper, (short) occurrences);
+        } else if ((type == byte.class || type == Byte.class) && occurrences == (byte) occurrences) {
+            field.set(wrapper, (byte) occurrences);
+        } else {
+            throw new BindingException(parameter, "Invalid counted flag field " + field.getName(), null);
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return type == boolean.class || type == Boolean.class
+                || type == int.class || type == Integer.class || type == long.class || type == Long.class
+                || type == short.class || type == Short.class || type == byte.class || type == Byte.class;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Operands;
+import com.nilcaream.utilargs.model.Option;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+/**
+ * Base class of binders generated at compile time by util-args-processor. A generated binder of wrapper class
+ * {@code com.example.Outer$Inner} is named {@code com.example.Outer_InnerArgs}, declares the same options as
+ * the wrapper fields and assigns converted arguments directly to the fields.
+ * <p/>
+ * {@link BindingPlan} uses a generated binder, when present, instead of scanning wrapper fields.
+ */
+public abstract class GeneratedBinder {
+
+    private static final String SUFFIX = "Args";
+
+    private final Class<?> type;
+    private final Option[] options;
+    private final String[] fieldNames;
+    private final Class<?>[] fieldTypes;
+
+    protected GeneratedBinder(Class<?> type, Option[] options, String[] fieldNames, Class<?>[] fieldTypes) {
+        this.type = type;
+        this.options = options;
+        this.fieldNames = fieldNames;
+        this.fieldTypes = fieldTypes;
+    }
+
+    /**
+     * Converts argument and assigns it to the field of given binding index.
+     *
+     * @param wrapper  wrapper object
+     * @param index    index of option
+     * @param argument argument to convert
+     * @throws Exception when argument can not be converted
+     */
+    public abstract void bind(Object wrapper, int index, String argument) throws Exception;
+
+    /**
+     * Assigns flag option of given binding index: true to boolean fields and number of occurrences to
+     * {@link Option#counted() counted} flags. Generated binders override this method to assign fields directly,
+     * the default implementation delegates to {@link #bind(Object, int, String)}.
+     *
+     * @param wrapper     wrapper object
+     * @param index       index of flag option
+     * @param occurrences number of flag occurrences, at least 1
+     * @throws Exception when flag can not be assigned
+     */
+    public void bindFlag(Object wrapper, int index, int occurrences) throws Exception {
+        bind(wrapper, index, options[index].counted() ? Integer.toString(occurrences) : "true");
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public int size() {
+        return options.length;
+    }
+
+    public Option getOption(int index) {
+        return options[index];
+    }
+
+    public String getFieldName(int index) {
+        return fieldNames[index];
+    }
+
+    public Class<?> getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    /**
+     * Gets name of the {@link Operands} annotated field of the wrapper class. Generated binders override this method
+     * with the name resolved at compile time, the default implementation scans wrapper fields.
+     *
+     * @return field name or null if there is no such field
+     */
+    public String getOperandsFieldName() {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Operands.class)) {
+                return field.getName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets name of generated binder class of given wrapper class.
+     *
+     * @param binaryName binary name of wrapper class, as returned by {@link Class#getName()}
+     * @return binder class name
+     */
+    public static String getBinderName(String binaryName) {
+        int packageEnd = binaryName.lastIndexOf('.') + 1;
+        return binaryName.substring(0, packageEnd) + binaryName.substring(packageEnd).replace('$', '_') + SUFFIX;
+    }
+
+    /**
+     * Finds generated binder of given wrapper class.
+     *
+     * @param type wrapper class
+     * @return binder instance or null if there is none
+     */
+    static GeneratedBinder find(Class<?> type) {
+        if (type.isArray() || type.isPrimitive() || type.getClassLoader() == null) {
+            return null;
+        }
+        try {
+            // not initialized, as an unrelated class may have the same name
+            Class<?> binderType = Class.forName(getBinderName(type.getName()), false, type.getClassLoader());
+            if (GeneratedBinder.class.isAssignableFrom(binderType)) {
+                GeneratedBinder binder = (GeneratedBinder) binderType.getConstructor().newInstance();
+                if (binder.getType().equals(type)) {
+                    return binder;
+                }
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // no usable generated binder
+        }
+        return null;
+    }
+
+    /**
+     * Checks occurrences of counted flag bound to a narrow field type.
+     *
+     * @param occurrences number of occurrences
+     * @param max         maximal value of field type
+     * @return given occurrences
+     * @throws IllegalArgumentException when occurrences exceed maximal value
+     */
+    protected static int checkRange(int occurrences, int max) {
+        if (occurrences > max) {
+            throw new IllegalArgumentException("Too many occurrences of counted flag " + occurrences);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Creates option annotation instance for generated code.
+     *
+     * @param name     short option name or 0
+     * @param longName long option name or empty String
+     * @return option equal to the annotation with the same values
+     */
+    protected static Option option(char name, String longName) {
+        return new OptionLiteral(name, longName, false);
+    }
+
+    /**
+     * Creates option annotation instance for generated code.
+     *
+     * @param name     short option name or 0
+     * @param longName long option name or empty String
+     * @param counted  true for counted flag
+     * @return option equal to the annotation with the same values
+     */
+    protected static Option option(char name, String longName, boolean counted) {
+        return new OptionLiteral(name, longName, counted);
+    }
+
+    private static final class OptionLiteral implements Option {
+
+        private final char name;
+        private final String longName;
+        private final boolean counted;
+
+        private OptionLiteral(char name, String longName, boolean counted) {
+            this.name = name;
+            this.longName = longName;
+            this.counted = counted;
+        }
+
+        @Override
+        public char name() {
+            return name;
+        }
+
+        @Override
+        public String longName() {
+            return longName;
+        }
+
+        @Override
+        public boolean counted() {
+            return counted;
+        }
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Option.class;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Option)) return false;
+
+            Option that = (Option) o;
+            return name == that.name() && longName.equals(that.longName()) && counted == that.counted();
+        }
+
+        @Override
+        public int hashCode() {
+            return ((127 * "name".hashCode()) ^ Character.valueOf(name).hashCode())
+                    + ((127 * "longName".hashCode()) ^ longName.hashCode())
+                    + ((127 * "counted".hashCode()) ^ Boolean.valueOf(counted).hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return "@" + Option.class.getName() + "(name=" + name + ", longName=" + longName + ", counted=" + counted + ")";
+        }
+    }
+}
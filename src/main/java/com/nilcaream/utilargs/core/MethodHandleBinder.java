@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Base binder for converters resolved into {@link MethodHandle} instances. Implementations resolve a handle once
+ * per field type (typically caching it in a {@link ClassValue}) so that binding a value is a single direct call.
+ */
+public abstract class MethodHandleBinder implements ArgumentBinder {
+
+    /**
+     * Type of all converter handles: takes an argument and returns converted value.
+     */
+    protected static final MethodType CONVERTER_TYPE = MethodType.methodType(Object.class, String.class);
+
+    @Override
+    public void bind(Parameter parameter, Object wrapper) throws Exception {
+        Field field = parameter.getField();
+        MethodHandle converter = getHandle(field.getType());
+        if (converter == null) {
+            throw new NoSuchMethodException("No " + getClass().getSimpleName() + " converter for " + field.getType());
+        }
+        Object value = convert(converter, parameter.getArgument());
+        field.setAccessible(true);
+        field.set(wrapper, value);
+    }
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return getHandle(type) != null;
+    }
+
+    @Override
+    public Converter getConverter(Class<?> type) {
+        MethodHandle converter = getHandle(type);
+        return converter == null ? null : argument -> convert(converter, argument);
+    }
+
+    /**
+     * Gets converter handle of given type.
+     *
+     * @param type target type
+     * @return handle of {@link #CONVERTER_TYPE} type or null if this binder does not support given type
+     */
+    protected abstract MethodHandle getHandle(Class<?> type);
+
+    private static Object convert(MethodHandle converter, String argument) throws Exception {
+        try {
+            return (Object) converter.invokeExact(argument);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
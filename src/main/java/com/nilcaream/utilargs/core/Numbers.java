@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+/**
+ * Allocation-free parsers of numbers from character sequences. Accepted formats are the same as of
+ * {@link Integer#parseInt(String)}, {@link Long#parseLong(String)} and {@link Double#parseDouble(String)}.
+ * Invalid input is reported with a {@link NumberFormatException} that does not fill in its stack trace.
+ */
+public final class Numbers {
+
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private Numbers() {
+    }
+
+    public static int parseInt(CharSequence input) {
+        return parseInt(input, 0, input.length());
+    }
+
+    public static int parseInt(CharSequence input, int from, int to) {
+        long value = parseLong(input, from, to, Integer.MIN_VALUE, -Integer.MAX_VALUE);
+        return (int) value;
+    }
+
+    public static short parseShort(CharSequence input) {
+        return (short) parseLong(input, 0, input.length(), Short.MIN_VALUE, -Short.MAX_VALUE);
+    }
+
+    public static byte parseByte(CharSequence input) {
+        return (byte) parseLong(input, 0, input.length(), Byte.MIN_VALUE, -Byte.MAX_VALUE);
+    }
+
+    public static long parseLong(CharSequence input) {
+        return parseLong(input, 0, input.length());
+    }
+
+    public static long parseLong(CharSequence input, int from, int to) {
+        return parseLong(input, from, to, Long.MIN_VALUE, -Long.MAX_VALUE);
+    }
+
+    private static long parseLong(CharSequence input, int from, int to, long negativeLimit, long positiveLimit) {
+        if (from >= to) {
+            throw invalid(input, from, to);
+        }
+        int index = from;
+        boolean negative = false;
+        long limit = positiveLimit;
+        char first = input.charAt(index);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = negativeLimit;
+            } else if (first != '+') {
+                throw invalid(input, from, to);
+            }
+            if (++index == to) {
+                throw invalid(input, from, to);
+            }
+        }
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        while (index < to) {
+            int digit = Character.digit(input.charAt(index++), 10);
+            if (digit < 0 || result < multiplicationLimit) {
+                throw invalid(input, from, to);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalid(input, from, to);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    public static double parseDouble(CharSequence input) {
+        return parseDouble(input, 0, input.length());
+    }
+
+    /**
+     * Parses decimal numbers of up to 15 significant digits and exponent of up to 22 without allocation, which gives
+     * correctly rounded result with a single multiplication or division. Other inputs (including hexadecimal, NaN,
+     * Infinity and malformed numbers) are passed to {@link Double#parseDouble(String)}; inputs with characters not
+     * valid in any number format are rejected without it.
+     */
+    public static double parseDouble(CharSequence input, int from, int to) {
+        int index = from;
+        boolean negative = false;
+        if (index < to && (input.charAt(index) == '-' || input.charAt(index) == '+')) {
+            negative = input.charAt(index) == '-';
+            index++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        for (; index < to; index++) {
+            char c = input.charAt(index);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++digits > MAX_EXACT_DIGITS) {
+                        return fallback(input, from, to);
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (!anyDigit) {
+            return fallback(input, from, to);
+        }
+
+        if (index < to && (input.charAt(index) == 'e' || input.charAt(index) == 'E')) {
+            index++;
+            boolean negativeExponent = false;
+            if (index < to && (input.charAt(index) == '-' || input.charAt(index) == '+')) {
+                negativeExponent = input.charAt(index) == '-';
+                index++;
+            }
+            int exponentStart = index;
+            int explicitExponent = 0;
+            for (; index < to && input.charAt(index) >= '0' && input.charAt(index) <= '9'; index++) {
+                if (index - exponentStart >= 4) {
+                    return fallback(input, from, to);
+                }
+                explicitExponent = explicitExponent * 10 + (input.charAt(index) - '0');
+            }
+            if (index == exponentStart) {
+                return fallback(input, from, to);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (index != to) {
+            return fallback(input, from, to);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return fallback(input, from, to);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Passes input to {@link Double#parseDouble(String)}, unless it contains characters that are not valid in any
+     * format accepted by it, so that common invalid inputs are reported without a stack trace.
+     */
+    private static double fallback(CharSequence input, int from, int to) {
+        if (!isPlausibleDouble(input, from, to)) {
+            throw invalid(input, from, to);
+        }
+        return Double.parseDouble(input.subSequence(from, to).toString());
+    }
+
+    private static boolean isPlausibleDouble(CharSequence input, int from, int to) {
+        while (from < to && input.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && input.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from < to && (input.charAt(from) == '-' || input.charAt(from) == '+')) {
+            from++;
+        }
+        if (from == to) {
+            return false;
+        }
+        char first = input.charAt(from);
+        if (first == 'N' || first == 'I' || (first == '0' && from + 1 < to && (input.charAt(from + 1) | 0x20) == 'x')) {
+            // NaN, Infinity and hexadecimal formats
+            return true;
+        }
+        char last = input.charAt(to - 1);
+        if (last == 'd' || last == 'D' || last == 'f' || last == 'F') {
+            to--;
+        }
+        for (int index = from; index < to; index++) {
+            char c = input.charAt(index);
+            if ((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '-' && c != '+') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static NumberFormatException invalid(CharSequence input, int from, int to) {
+        return new InvalidNumberException("For input string: \"" + input.subSequence(from, to) + "\"");
+    }
+
+    private static final class InvalidNumberException extends NumberFormatException {
+
+        private static final long serialVersionUID = 1L;
+
+        private InvalidNumberException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
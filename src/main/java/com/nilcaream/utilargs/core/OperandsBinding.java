@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Operands;
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Immutable description of the {@link Operands} annotated field of a wrapper class. The instance is created once
+ * per wrapper class by {@link BindingPlan} and shared between all processors.
+ * <p/>
+ * List fields are bound with a read-only view converting each operand on its first access. Arrays are filled
+ * while operands are bound, int, long and double operands are parsed directly into primitive values.
+ */
+public final class OperandsBinding {
+
+    private final Field field;
+    private final Elements elements;
+
+    private OperandsBinding(Field field) {
+        this.field = field;
+        this.elements = new Elements(field);
+    }
+
+    /**
+     * Finds the {@link Operands} annotated field of given wrapper class.
+     *
+     * @param type wrapper class
+     * @return binding of the first annotated field or null if there is none
+     */
+    static OperandsBinding find(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Operands.class)) {
+                return new OperandsBinding(field);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates binding of the {@link Operands} annotated field of given name, as declared by a {@link GeneratedBinder}.
+     *
+     * @param type      wrapper class
+     * @param fieldName field name or null
+     * @return binding of the field or null if field name is null
+     * @throws IllegalStateException when wrapper class has no such field
+     */
+    static OperandsBinding find(Class<?> type, String fieldName) {
+        if (fieldName == null) {
+            return null;
+        }
+        try {
+            return new OperandsBinding(type.getDeclaredField(fieldName));
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("No operands field " + fieldName + " in " + type.getName(), e);
+        }
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Gets type of values operands are converted to.
+     *
+     * @return array component type or list type argument, String by default
+     */
+    public Class<?> getElementType() {
+        return elements.getType();
+    }
+
+    /**
+     * Sets field of given wrapper to given operands, converted with the first of given binders that supports
+     * {@link #getElementType() element type}. Field is left unchanged when binding fails.
+     *
+     * @param wrapper  wrapper object
+     * @param operands operands to bind, list fields keep a reference to this list
+     * @param binders  available binders
+     * @throws BindingException if field type is not supported or an operand can not be converted to array element
+     */
+    public void bind(Object wrapper, List<String> operands, List<ArgumentBinder> binders) {
+        if (!Elements.isSupported(field.getType())) {
+            throw new BindingException(createParameter(null), "Unsupported type of operands field " + field.getName(), null);
+        }
+        Converter converter = elements.getConverter(binders);
+        if (converter == null) {
+            throw new BindingException(createParameter(null), "No binder supports operands of field " + field.getName(), null);
+        }
+        Object value;
+        if (elements.isArray()) {
+            try {
+                value = elements.convert(operands, false, converter);
+            } catch (Elements.InvalidElementException e) {
+                throw new BindingException(createParameter(e.getValue()),
+                        "Invalid operand " + e.getIndex() + " of field " + field.getName(), e.getCause());
+            }
+        } else if (elements.getType() == String.class) {
+            value = operands;
+        } else {
+            value = new ConvertingList<>(operands, converter, field.getName());
+        }
+        try {
+            field.setAccessible(true);
+            field.set(wrapper, value);
+        } catch (IllegalAccessException e) {
+            throw new BindingException(createParameter(null), "Unable to set operands field " + field.getName(), e);
+        }
+    }
+
+    private Parameter createParameter(String argument) {
+        Parameter parameter = new Parameter();
+        parameter.setField(field);
+        parameter.setArgument(argument);
+        return parameter;
+    }
+
+    @Override
+    public String toString() {
+        return "OperandsBinding{field=" + field.getDeclaringClass().getName() + '.' + field.getName() + '}';
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Option;
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable description of a single {@link Option} annotated field. Instances are created once per wrapper class
+ * by {@link BindingPlan} and shared between all processors.
+ * <p/>
+ * Bindings created from a {@link GeneratedBinder} resolve their {@link Field} only when it is requested.
+ */
+public final class OptionBinding {
+
+    private final int index;
+    private final Option option;
+    private final Class<?> declaringType;
+    private final String fieldName;
+    private final Class<?> type;
+    private final boolean flag;
+    private final boolean counted;
+    private final boolean multiValued;
+
+    private volatile Field field;
+    private volatile Elements elements;
+    private final BinderCache<ArgumentBinder[]> supportingBinders = new BinderCache<ArgumentBinder[]>() {
+        @Override
+        protected ArgumentBinder[] resolve(List<ArgumentBinder> binders) {
+            List<ArgumentBinder> supporting = new ArrayList<>();
+            for (ArgumentBinder binder : binders) {
+                if (binder.supports(type)) {
+                    supporting.add(binder);
+                }
+            }
+            return supporting.toArray(new ArgumentBinder[supporting.size()]);
+        }
+    };
+
+    OptionBinding(int index, Option option, Field field) {
+        this(index, option, field.getDeclaringClass(), field.getName(), field.getType());
+        this.field = field;
+    }
+
+    OptionBinding(int index, Option option, Class<?> declaringType, String fieldName, Class<?> type) {
+        this.index = index;
+        this.option = option;
+        this.declaringType = declaringType;
+        this.fieldName = fieldName;
+        this.type = type;
+        this.counted = option != null && option.counted();
+        this.flag = counted || type.getSimpleName().equalsIgnoreCase("boolean");
+        this.multiValued = !flag && Elements.isSupported(type);
+    }
+
+    /**
+     * Gets position of this binding in its {@link BindingPlan}.
+     *
+     * @return index in range of 0 to plan size
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Option getOption() {
+        return option;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Gets type of bound field.
+     *
+     * @return field type
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets bound field, resolving it if this binding was generated.
+     *
+     * @return not-null field
+     * @throws IllegalStateException if field can not be resolved
+     */
+    public Field getField() {
+        Field current = field;
+        if (current == null) {
+            try {
+                current = declaringType.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException("Field " + fieldName + " not found in " + declaringType, e);
+            }
+            field = current;
+        }
+        return current;
+    }
+
+    /**
+     * Checks if this option is a boolean flag, i.e. it does not take an argument.
+     *
+     * @return true for boolean and Boolean fields and for counted flags
+     */
+    public boolean isFlag() {
+        return flag;
+    }
+
+    /**
+     * Checks if this option is a {@link Option#counted() counted} flag.
+     *
+     * @return true if field is set to number of flag occurrences
+     */
+    public boolean isCounted() {
+        return counted;
+    }
+
+    /**
+     * Checks if this option may be repeated. Arguments of all occurrences are split at commas and bound as elements
+     * of an array, {@link List}, {@link java.util.Collection} or {@link Iterable} field, e.g. "-I a,b -I c" binds
+     * three elements.
+     *
+     * @return true for array and list fields
+     */
+    public boolean isMultiValued() {
+        return multiValued;
+    }
+
+    /**
+     * Sets field of given wrapper to elements of all {@link Parameter#getArguments() arguments} of given parameter,
+     * converted with the first of given binders that supports element type. Field is left unchanged when binding
+     * fails.
+     * <p/>
+     * Arguments of int[], long[] and double[] fields starting with @ name a file of values separated by commas or
+     * line breaks. With a pool given, arguments of such fields of at least given length are split into chunks parsed
+     * in parallel.
+     *
+     * @param parameter         parameter of this {@link #isMultiValued() multi-valued} option
+     * @param wrapper           wrapper object
+     * @param binders           available binders
+     * @param pool              pool to parse long arguments in or null to parse them on the calling thread
+     * @param parallelThreshold minimal length of an argument parsed in parallel
+     * @throws BindingException if no binder supports element type or an element can not be converted
+     */
+    public void bindValues(Parameter parameter, Object wrapper, List<ArgumentBinder> binders, ForkJoinPool pool,
+                           int parallelThreshold) {
+        Elements current = elements;
+        if (current == null) {
+            current = new Elements(getField());
+            elements = current;
+        }
+        Converter converter = current.getConverter(binders);
+        if (converter == null) {
+            throw new BindingException(parameter, "No binder supports elements of field " + fieldName, null);
+        }
+        List<String> arguments = parameter.getArguments();
+        Object values;
+        try {
+            if (current.isNumeric()) {
+                arguments = Elements.readFiles(arguments);
+            }
+            values = current.convert(arguments, true, converter, pool, parallelThreshold);
+        } catch (IOException e) {
+            throw new BindingException(parameter, "Unable to read values of field " + fieldName, e);
+        } catch (Elements.InvalidElementException e) {
+            throw new BindingException(parameter, "Invalid value " + e.getIndex() + " of field " + fieldName + ": "
+                    + e.getValue(), e.getCause());
+        }
+        try {
+            Field target = getField();
+            target.setAccessible(true);
+            target.set(wrapper, values);
+        } catch (IllegalAccessException e) {
+            throw new BindingException(parameter, "Unable to set field " + fieldName, e);
+        }
+    }
+
+    /**
+     * Gets binders from given list that {@link ArgumentBinder#supports(Class) support} this field type, in list order.
+     * The result is cached per list of binders, see {@link BinderCache}.
+     *
+     * @param binders available binders
+     * @return not-null array of supporting binders
+     */
+    public ArgumentBinder[] getSupportingBinders(List<ArgumentBinder> binders) {
+        return supportingBinders.get(binders);
+    }
+
+    /**
+     * Creates new, empty parameter for this binding. The field of parameter is not set if it has not been
+     * resolved yet, so that generated bindings do not use reflection.
+     *
+     * @return parameter with option set
+     * @see #getField()
+     */
+    public Parameter createParameter() {
+        Parameter parameter = new Parameter();
+        parameter.setOption(option);
+        parameter.setField(field);
+        return parameter;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("OptionBinding{");
+        sb.append("index=").append(index);
+        sb.append(", option=").append(option);
+        sb.append(", field=").append(declaringType.getName()).append('.').append(fieldName);
+        sb.append('}');
+        return sb.toString();
+    }
+}
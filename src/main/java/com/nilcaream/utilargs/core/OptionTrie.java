@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import java.util.Arrays;
+
+/**
+ * Immutable trie of long option names. Names are matched directly against characters of an argument, so lookup
+ * does not create substrings. Every node knows the binding of its subtree when the subtree holds only one name,
+ * which makes unique-prefix matching as cheap as exact matching.
+ */
+final class OptionTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final OptionTrie[] NO_CHILDREN = new OptionTrie[0];
+
+    private char[] labels = NO_LABELS;
+    private OptionTrie[] children = NO_CHILDREN;
+    private OptionBinding binding;
+    private OptionBinding unique;
+    private int count;
+
+    OptionTrie() {
+    }
+
+    /**
+     * Adds long name of given binding. Not thread-safe, the trie has to be fully built before it is shared.
+     *
+     * @param longName not-empty long name
+     * @param binding  binding of long name
+     */
+    void add(String longName, OptionBinding binding) {
+        OptionTrie node = this;
+        node.count(binding);
+        for (int index = 0; index < longName.length(); index++) {
+            node = node.getOrAddChild(longName.charAt(index));
+            node.count(binding);
+        }
+        node.binding = binding;
+    }
+
+    /**
+     * Finds binding of long name equal to characters of given sequence from given index to its end.
+     *
+     * @param sequence    characters to match
+     * @param from        index of the first character of long name
+     * @param abbreviated true to accept a unique prefix of a long name, an exact match always takes precedence
+     * @return binding or null when not found or when prefix is ambiguous
+     */
+    OptionBinding find(CharSequence sequence, int from, boolean abbreviated) {
+        return find(sequence, from, sequence.length(), abbreviated);
+    }
+
+    /**
+     * Finds binding of long name equal to given region of characters.
+     *
+     * @param sequence    characters to match
+     * @param from        index of the first character of long name
+     * @param to          index after the last character of long name
+     * @param abbreviated true to accept a unique prefix of a long name, an exact match always takes precedence
+     * @return binding or null when not found or when prefix is ambiguous
+     */
+    OptionBinding find(CharSequence sequence, int from, int to, boolean abbreviated) {
+        if (from >= to) {
+            return null;
+        }
+        OptionTrie node = this;
+        for (int index = from; index < to && node != null; index++) {
+            node = node.getChild(sequence.charAt(index));
+        }
+        if (node == null) {
+            return null;
+        } else if (node.binding != null || !abbreviated) {
+            return node.binding;
+        } else {
+            return node.unique;
+        }
+    }
+
+    private void count(OptionBinding binding) {
+        if (count == 0 || unique != binding) {
+            count++;
+        }
+        unique = count == 1 ? binding : null;
+    }
+
+    private OptionTrie getChild(char label) {
+        int position = Arrays.binarySearch(labels, label);
+        return position < 0 ? null : children[position];
+    }
+
+    private OptionTrie getOrAddChild(char label) {
+        int position = Arrays.binarySearch(labels, label);
+        if (position >= 0) {
+            return children[position];
+        }
+        position = -position - 1;
+        OptionTrie child = new OptionTrie();
+
+        char[] newLabels = new char[labels.length + 1];
+        System.arraycopy(labels, 0, newLabels, 0, position);
+        System.arraycopy(labels, position, newLabels, position + 1, labels.length - position);
+        newLabels[position] = label;
+
+        OptionTrie[] newChildren = new OptionTrie[children.length + 1];
+        System.arraycopy(children, 0, newChildren, 0, position);
+        System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+        newChildren[position] = child;
+
+        labels = newLabels;
+        children = newChildren;
+        return child;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.lang.reflect.Field;
+
+/**
+ * Binder of primitive int, long, short, byte, double, boolean and char fields. Arguments are parsed directly into
+ * primitive values and written with typed field setters, so binding does not allocate.
+ * <p/>
+ * Integer, Long, Short, Byte, Double and Character fields are parsed the same way and boxed, so that invalid
+ * arguments of wrapper types are reported without JDK exceptions filling in their stack traces.
+ * <p/>
+ * Invalid arguments are reported with {@link BindingException}.
+ */
+public class PrimitiveBinder implements ArgumentBinder {
+
+    @Override
+    public void bind(Parameter parameter, Object wrapper) throws Exception {
+        Field field = parameter.getField();
+        Class<?> type = field.getType();
+        String argument = parameter.getArgument();
+        field.setAccessible(true);
+        try {
+            if (type == int.class) {
+                field.setInt(wrapper, Numbers.parseInt(argument));
+            } else if (type == long.class) {
+                field.setLong(wrapper, Numbers.parseLong(argument));
+            } else if (type == double.class) {
+                field.setDouble(wrapper, Numbers.parseDouble(argument));
+            } else if (type == boolean.class) {
+                field.setBoolean(wrapper, Boolean.parseBoolean(argument));
+            } else if (type == char.class) {
+                field.setChar(wrapper, parseChar(argument));
+            } else if (type == short.class) {
+                field.setShort(wrapper, Numbers.parseShort(argument));
+            } else if (type == byte.class) {
+                field.setByte(wrapper, Numbers.parseByte(argument));
+            } else {
+                Object value = parseBoxed(type, argument);
+                if (value == null) {
+                    throw new NoSuchMethodException("No PrimitiveBinder converter for " + type);
+                }
+                field.set(wrapper, value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BindingException(parameter, "Invalid argument of field " + field.getName(), e);
+        }
+    }
+
+    /**
+     * Converts argument of a char field into its first character. Used by generated binders as well.
+     *
+     * @param argument argument
+     * @return the first character
+     * @throws IllegalArgumentException if argument is empty
+     */
+    public static char parseChar(String argument) {
+        if (argument.isEmpty()) {
+            throw new IllegalArgumentException("Empty argument of char field");
+        }
+        return argument.charAt(0);
+    }
+
+    private static Object parseBoxed(Class<?> type, String argument) {
+        if (type == Integer.class) {
+            return Numbers.parseInt(argument);
+        } else if (type == Long.class) {
+            return Numbers.parseLong(argument);
+        } else if (type == Double.class) {
+            return Numbers.parseDouble(argument);
+        } else if (type == Short.class) {
+            return Numbers.parseShort(argument);
+        } else if (type == Byte.class) {
+            return Numbers.parseByte(argument);
+        } else if (type == Character.class) {
+            return parseChar(argument);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return type == int.class || type == long.class || type == double.class || type == boolean.class
+                || type == char.class || type == short.class || type == byte.class
+                || type == Integer.class || type == Long.class || type == Double.class
+                || type == Character.class || type == Short.class || type == Byte.class;
+    }
+
+    @Override
+    public Converter getConverter(Class<?> type) {
+        Converter converter = null;
+        if (type == int.class || type == Integer.class) {
+            converter = Numbers::parseInt;
+        } else if (type == long.class || type == Long.class) {
+            converter = Numbers::parseLong;
+        } else if (type == double.class || type == Double.class) {
+            converter = Numbers::parseDouble;
+        } else if (type == short.class || type == Short.class) {
+            converter = Numbers::parseShort;
+        } else if (type == byte.class || type == Byte.class) {
+            converter = Numbers::parseByte;
+        } else if (type == char.class || type == Character.class) {
+            converter = PrimitiveBinder::parseChar;
+        } else if (type == boolean.class) {
+            converter = Boolean::parseBoolean;
+        }
+        return converter;
+    }
+}
@@ -16,80 +16,60 @@
 
 package com.nilcaream.utilargs.core;
 
-import com.nilcaream.utilargs.model.Parameter;
-
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Optional;
 
 /**
  * Binder that uses static valueOf method. Suitable for primitives types and their wrapper classes.
  * <p/>
+ * The valueOf method is resolved once per field type.
+ * <p/>
  * Krzysztof Smigielski 10/30/12 7:47 PM
  */
-public class StaticValueOfBinder implements ArgumentBinder {
+public class StaticValueOfBinder extends MethodHandleBinder {
 
-    @Override
-    public void bind(Parameter parameter, Object wrapper) throws Exception {
-        Field field = parameter.getField();
-        Class<?> fieldType = getType(field);
-        Class<?> parameterType = getParameterType(field);
-        Method valueOf = fieldType.getMethod("valueOf", parameterType);
-        if (Modifier.isStatic(valueOf.getModifiers())) {
-            Object argument = getArgument(parameter);
-            Object value = valueOf.invoke(null, argument);
-            field.setAccessible(true);
-            field.set(wrapper, value);
-        } else {
-            throw new NoSuchMethodException("Method valueOf(String) is not static");
-        }
-    }
+    private static final MethodHandle FIRST_CHARACTER;
 
-    private Class<?> getType(Field field) throws ClassNotFoundException {
-        Class<?> type = field.getType();
-        if (type.isPrimitive()) {
-            type = Class.forName("java.lang." + getWrappingClassName(type.getName()));
+    static {
+        try {
+            MethodHandle charAt = MethodHandles.lookup().findVirtual(String.class, "charAt", MethodType.methodType(char.class, int.class));
+            FIRST_CHARACTER = MethodHandles.insertArguments(charAt, 1, 0);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
         }
-        return type;
     }
 
-    private String getWrappingClassName(String primitiveClassName) {
-        String result;
-        switch (primitiveClassName) {
-            case "int":
-                result = "Integer";
-                break;
-            case "char":
-                result = "Character";
-                break;
-            default:
-                result = toCamelCase(primitiveClassName);
-                break;
+    private static final ClassValue<Optional<MethodHandle>> CONVERTERS = new ClassValue<Optional<MethodHandle>>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            return Optional.ofNullable(resolve(type));
         }
-        return result;
-    }
+    };
 
-    private String toCamelCase(String input) {
-        return input.substring(0, 1).toUpperCase() + input.substring(1);
-    }
-
-    private Class<?> getParameterType(Field field) {
-        Class<?> type = String.class;
-        if (isCharacter(field)) {
-            type = char.class;
-        }
-        return type;
+    @Override
+    protected MethodHandle getHandle(Class<?> type) {
+        return CONVERTERS.get(type).orElse(null);
     }
 
-    private Object getArgument(Parameter parameter) {
-        Object argument = parameter.getArgument();
-        if (isCharacter(parameter.getField())) {
-            argument = parameter.getArgument().charAt(0);
+    private static MethodHandle resolve(Class<?> type) {
+        Class<?> valueType = MethodType.methodType(type).wrap().returnType();
+        boolean character = valueType.equals(Character.class);
+        try {
+            Method valueOf = valueType.getMethod("valueOf", character ? char.class : String.class);
+            if (!Modifier.isStatic(valueOf.getModifiers())) {
+                return null;
+            }
+            MethodHandle handle = MethodHandles.lookup().unreflect(valueOf);
+            if (character) {
+                handle = MethodHandles.filterArguments(handle, 0, FIRST_CHARACTER);
+            }
+            return handle.asType(CONVERTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
         }
-        return argument;
-    }
-
-    private boolean isCharacter(Field field) {
-        return field.getType().equals(char.class) || field.getType().equals(Character.class);
     }
 }
@@ -16,24 +16,62 @@
 
 package com.nilcaream.utilargs.core;
 
-import com.nilcaream.utilargs.model.Parameter;
-
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
 
 /**
  * Binder that uses constructor with String argument.
  * <p/>
+ * The constructor is resolved once per field type. String fields are bound with the argument itself and
+ * {@link Path} fields with a path of the default file system.
+ * <p/>
  * Krzysztof Smigielski 10/30/12 7:49 PM
  */
-public class StringConstructorBinder implements ArgumentBinder {
+public class StringConstructorBinder extends MethodHandleBinder {
+
+    private static final ClassValue<Optional<MethodHandle>> CONVERTERS = new ClassValue<Optional<MethodHandle>>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            return Optional.ofNullable(resolve(type));
+        }
+    };
 
     @Override
-    public void bind(Parameter parameter, Object wrapper) throws Exception {
-        Field field = parameter.getField();
-        Constructor constructor = field.getType().getConstructor(String.class);
-        Object value = constructor.newInstance(parameter.getArgument());
-        field.setAccessible(true);
-        field.set(wrapper, value);
+    protected MethodHandle getHandle(Class<?> type) {
+        return CONVERTERS.get(type).orElse(null);
+    }
+
+    private static MethodHandle resolve(Class<?> type) {
+        if (type.equals(String.class)) {
+            return MethodHandles.identity(String.class).asType(CONVERTER_TYPE);
+        }
+        if (type.equals(Path.class)) {
+            return resolvePath();
+        }
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getConstructor(String.class);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(CONVERTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle resolvePath() {
+        try {
+            MethodHandle get = MethodHandles.lookup().findStatic(Paths.class, "get",
+                    MethodType.methodType(Path.class, String.class, String[].class));
+            return MethodHandles.insertArguments(get, 1, (Object) new String[0]).asType(CONVERTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
     }
 }
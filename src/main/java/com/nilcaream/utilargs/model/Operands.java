@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Field annotation used to indicate that operands should be bound to this field. Only one field of annotated
+ * object should be marked.
+ * <p/>
+ * Supported field types are {@link java.util.List}, {@link java.util.Collection} and {@link Iterable} of any type
+ * supported by option binders (String when no type argument is given), e.g. {@code List<Path>}, and arrays of such
+ * types, e.g. {@code int[]} or {@code String[]}. Lists are read-only and convert each operand on its first access,
+ * arrays are converted while operands are bound.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Operands {
+}
@@ -35,4 +35,12 @@ public @interface Option {
 
     String longName() default "";
 
+    /**
+     * Marks a counted flag. Such option takes no argument and its int, long, short or byte field (or a wrapper
+     * of these) is set to the number of occurrences, e.g. "-vvv" or "-v -v -v" sets 3.
+     *
+     * @return true for counted flag
+     */
+    boolean counted() default false;
+
 }
@@ -17,6 +17,9 @@
 package com.nilcaream.utilargs.model;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Command line argument wrapper with associated argument, option and wrapping object field.
@@ -27,7 +30,9 @@ public class Parameter implements Comparable<Parameter> {
 
     private Option option;
     private String argument;
+    private List<String> arguments;
     private Field field;
+    private int occurrences;
 
     public Option getOption() {
         return option;
@@ -41,8 +46,54 @@ public class Parameter implements Comparable<Parameter> {
         return argument;
     }
 
+    /**
+     * Sets the only argument, replacing all {@link #addArgument(String) added} ones.
+     *
+     * @param argument argument or null
+     */
     public void setArgument(String argument) {
         this.argument = argument;
+        if (arguments != null) {
+            arguments.clear();
+        }
+    }
+
+    /**
+     * Adds argument of another occurrence of a repeated option. {@link #getArgument()} returns the last added one.
+     *
+     * @param argument argument to add
+     */
+    public void addArgument(String argument) {
+        if (arguments == null) {
+            arguments = new ArrayList<>(4);
+        }
+        arguments.add(argument);
+        this.argument = argument;
+    }
+
+    /**
+     * Gets arguments of all occurrences of a repeated option, in order of occurrence.
+     *
+     * @return not-null, read-only list of added arguments, or of the only argument if it was set
+     */
+    public List<String> getArguments() {
+        if (arguments != null && !arguments.isEmpty()) {
+            return Collections.unmodifiableList(arguments);
+        }
+        return argument == null ? Collections.<String>emptyList() : Collections.singletonList(argument);
+    }
+
+    /**
+     * Gets number of times a flag option was present in arguments.
+     *
+     * @return occurrences of flag or 0 for options with an argument
+     */
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int occurrences) {
+        this.occurrences = occurrences;
     }
 
     public Field getField() {
@@ -66,6 +117,7 @@ public class Parameter implements Comparable<Parameter> {
         final StringBuilder sb = new StringBuilder("Parameter{");
         sb.append("option=").append(option);
         sb.append(", argument='").append(argument).append('\'');
+        sb.append(", occurrences=").append(occurrences);
         sb.append(", field=").append(field);
         sb.append('}');
         return sb.toString();
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Scanner comparing {@link ByteVector#SPECIES_PREFERRED preferred} vectors of bytes at a time. The tail shorter
+ * than a vector is scanned by the scalar loop.
+ */
+final class VectorDelimiterScanner extends DelimiterScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public int scan(ByteBuffer buffer, int from, int to, boolean separator) {
+        int index = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; index < bound; index += SPECIES.length()) {
+            ByteVector vector = ByteVector.fromByteBuffer(SPECIES, buffer, index, ByteOrder.nativeOrder());
+            VectorMask<Byte> found = vector.eq((byte) '\n').or(vector.eq((byte) '\r'));
+            if (separator) {
+                found = found.or(vector.eq((byte) '='));
+            }
+            if (found.anyTrue()) {
+                return index + found.firstTrue();
+            }
+        }
+        return super.scan(buffer, index, to, separator);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + SPECIES.vectorBitSize() + " bits]";
+    }
+}
@@ -16,12 +16,20 @@
 
 package com.nilcaream.utilargs;
 
+import com.nilcaream.utilargs.core.ArgumentBinder;
+import com.nilcaream.utilargs.core.BindingException;
 import com.nilcaream.utilargs.model.Option;
 import com.nilcaream.utilargs.model.Parameter;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -69,17 +77,33 @@ public class ArgumentProcessorTest {
         List<Parameter> parameters = argumentProcessor.getDeclaredParameters();
 
         // then
-        assertThat(parameters).hasSize(10);
+        assertThat(parameters).hasSize(8);
         assertParameterState(parameters.get(0), 'a', null);
         assertParameterState(parameters.get(1), 'c', null);
-        assertParameterState(parameters.get(2), "city", null);
-        assertParameterState(parameters.get(3), 'n', null);
-        assertParameterState(parameters.get(4), "name", null);
-        assertParameterState(parameters.get(5), 'o', null);
-        assertParameterState(parameters.get(6), 't', null);
-        assertParameterState(parameters.get(7), 'v', null);
-        assertParameterState(parameters.get(8), 'y', null);
-        assertParameterState(parameters.get(9), 'z', null);
+        assertParameterState(parameters.get(1), "city", null);
+        assertParameterState(parameters.get(2), 'n', null);
+        assertParameterState(parameters.get(2), "name", null);
+        assertParameterState(parameters.get(3), 'o', null);
+        assertParameterState(parameters.get(4), 't', null);
+        assertParameterState(parameters.get(5), 'v', null);
+        assertParameterState(parameters.get(6), 'y', null);
+        assertParameterState(parameters.get(7), 'z', null);
+    }
+
+    @Test
+    public void verifyRepeatedParametersAreListedOnce() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        String[] args = "-n first --city x --name second -c y".split(" ");
+        argumentProcessor.initialize(args, testObject);
+
+        // when
+        List<Parameter> parameters = argumentProcessor.getParameters();
+
+        // then
+        assertThat(parameters).hasSize(2);
+        assertParameterState(parameters.get(0), 'c', "y");
+        assertParameterState(parameters.get(1), 'n', "second");
     }
 
     @Test
@@ -541,6 +565,299 @@ public class ArgumentProcessorTest {
         assertThat(argumentProcessor.getOperands()).isEqualTo("test");
     }
 
+    @Test
+    public void shouldNotMatchAbbreviatedLongOptionsByDefault() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        String[] args = "--na test --ci Paris".split(" ");
+
+        // when
+        argumentProcessor.initialize(args, testObject);
+
+        // then
+        assertThat(argumentProcessor.getParameters()).isEmpty();
+        assertThat(argumentProcessor.getOperands()).isEqualTo("--na test --ci Paris");
+    }
+
+    @Test
+    public void shouldMatchAbbreviatedLongOptions() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        String[] args = "--na test --c Paris -- operand".split(" ");
+        argumentProcessor.setAbbreviatedLongOptions(true);
+
+        // when
+        argumentProcessor.initialize(args, testObject);
+        List<Parameter> parameters = argumentProcessor.getParameters();
+
+        // then
+        assertThat(parameters).hasSize(2);
+        assertParameterState(parameters.get(0), 'c', "Paris");
+        assertParameterState(parameters.get(1), 'n', "test");
+        assertThat(argumentProcessor.getOperands()).isEqualTo("operand");
+    }
+
+    @Test
+    public void shouldCountFlagOccurrences() throws Exception {
+        // given
+        CountedObject countedObject = new CountedObject();
+        String[] args = "-vvv -q -vqx -vq operand".split(" ");
+
+        // when
+        argumentProcessor.initialize(args, countedObject);
+        List<Parameter> parameters = argumentProcessor.getParameters();
+
+        // then
+        assertThat(parameters).hasSize(2);
+        assertThat(parameters.get(0).getOccurrences()).isEqualTo(2);
+        assertThat(parameters.get(1).getOccurrences()).isEqualTo(4);
+        assertThat(countedObject.quiet).isTrue();
+        assertThat(countedObject.verbosity).isEqualTo(4);
+        assertThat(argumentProcessor.getBindingErrors()).isEmpty();
+        assertThat(argumentProcessor.getOperands()).isEqualTo("operand");
+    }
+
+    @Test
+    public void shouldProcessPropertiesFile() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        Path path = Files.createTempFile("arguments", ".properties");
+        Files.write(path, Arrays.asList("name=first", "# city=commented", "unknown=-c", "verbose=", "v=false",
+                "city=a=b", "name=second", "=empty"), StandardCharsets.UTF_8);
+
+        // when
+        argumentProcessor.initialize(path, testObject);
+        List<Parameter> parameters = argumentProcessor.getParameters();
+
+        // then
+        assertThat(parameters).hasSize(2);
+        assertParameterState(parameters.get(0), "city", "a=b");
+        assertParameterState(parameters.get(1), "name", "second");
+        assertThat(argumentProcessor.getArguments()).isEmpty();
+        assertThat(argumentProcessor.getOperands()).isEmpty();
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldProcessLargePropertiesFile() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        Path path = Files.createTempFile("arguments", ".properties");
+        StringBuilder content = new StringBuilder("name=first\n");
+        for (int index = 0; content.length() < 2 << 20; index++) {
+            content.append("unknown.key.").append(index).append("=value ").append(index).append('\n');
+        }
+        content.append("v=false\ncity=\u0141\u00f3d\u017a");
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        // when
+        argumentProcessor.initialize(path, testObject);
+        List<Parameter> parameters = argumentProcessor.getParameters();
+
+        // then
+        assertThat(parameters).hasSize(2);
+        assertParameterState(parameters.get(0), "city", "\u0141\u00f3d\u017a");
+        assertParameterState(parameters.get(1), "name", "first");
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldProcessPropertiesFileInParallel() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        Path path = Files.createTempFile("arguments", ".properties");
+        Files.write(path, Arrays.asList("name=first", "city=a=b", "unknown=-c", "name=second", "=empty"),
+                StandardCharsets.UTF_8);
+        argumentProcessor.setPropertiesPool(ForkJoinPool.commonPool());
+
+        // when
+        argumentProcessor.initialize(path, testObject);
+        List<Parameter> parameters = argumentProcessor.getParameters();
+
+        // then
+        assertThat(parameters).hasSize(2);
+        assertParameterState(parameters.get(0), "city", "a=b");
+        assertParameterState(parameters.get(1), "name", "second");
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldProbeBindersByType() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        String[] args = "-n name -z 1".split(" ");
+        List<String> calls = new ArrayList<>();
+        argumentProcessor.getBinders().add(new ArgumentBinder() {
+            @Override
+            public void bind(Parameter parameter, Object wrapper) throws Exception {
+                calls.add(parameter.getField().getName());
+            }
+
+            @Override
+            public boolean supports(Class<?> type) {
+                return type.equals(String.class);
+            }
+        });
+
+        // when
+        argumentProcessor.initialize(args, testObject);
+
+        // then
+        assertThat(calls).containsOnly("name");
+        assertThat(argumentProcessor.getBindingErrors()).hasSize(1);
+        assertThat(argumentProcessor.getBindingErrors().get(0).getParameter().getOption().name()).isEqualTo('z');
+    }
+
+    @Test
+    public void shouldStopAtFirstSupportingBinderOnInvalidBoxedNumber() throws Exception {
+        // given
+        String[] args = "-z 12a".split(" ");
+        TestObject testObject = new TestObject();
+        argumentProcessor.setBinders(UtilArgs.BINDERS);
+
+        // when
+        argumentProcessor.initialize(args, testObject);
+
+        // then
+        assertThat(testObject.integer).isNull();
+        assertThat(argumentProcessor.getBindingErrors()).hasSize(1);
+        BindingException error = argumentProcessor.getBindingErrors().get(0);
+        assertThat(error.getParameter().getOption().name()).isEqualTo('z');
+        assertThat(error.getCause()).isNotNull();
+        assertThat(error.getCause().getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void shouldProcessCommandLineAsArguments() throws Exception {
+        // given
+        String[] commandLines = {"", "test", "test -n x", "-n first --city x --name second -c y",
+                "-c 1 -o -z 4 -q 2", "-vay -n x operand", "-n x -- -c y", "-x -- -c y operand", "-va -vx -c",
+                "--name x --unknown operand --city", "-n -- -c z", "- -n x", "-- -n x", "-n x -c y first second"};
+
+        for (String commandLine : commandLines) {
+            ArgumentProcessor expected = new ArgumentProcessor();
+            expected.initialize(commandLine.isEmpty() ? new String[0] : commandLine.split(" "), new TestObject());
+
+            // when
+            argumentProcessor.initialize(commandLine, new TestObject());
+
+            // then
+            assertThat(argumentProcessor.getOperands()).as(commandLine).isEqualTo(expected.getOperands());
+            assertThat(argumentProcessor.getOperandsIndex()).isEqualTo(0);
+            assertThat(argumentProcessor.getParameters()).as(commandLine).hasSize(expected.getParameters().size());
+            for (int index = 0; index < expected.getParameters().size(); index++) {
+                Parameter parameter = argumentProcessor.getParameters().get(index);
+                assertThat(parameter.getOption()).as(commandLine).isEqualTo(expected.getParameters().get(index).getOption());
+                assertThat(parameter.getArgument()).as(commandLine).isEqualTo(expected.getParameters().get(index).getArgument());
+            }
+        }
+    }
+
+    @Test
+    public void shouldProcessQuotedCommandLine() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        argumentProcessor.setBinders(UtilArgs.BINDERS);
+
+        // when
+        argumentProcessor.initialize("  -n 'first name' -o \"4\"\t-va 'first operand' second\\ operand ", testObject);
+
+        // then
+        assertThat(testObject.name).isEqualTo("first name");
+        assertThat(testObject.number).isEqualTo(4);
+        assertThat(testObject.verbose).isTrue();
+        assertThat(testObject.amber).isTrue();
+        assertThat(argumentProcessor.getArguments()).isEqualTo(new String[]{"first operand", "second operand"});
+        assertThat(argumentProcessor.getOperands()).isEqualTo("first operand second operand");
+    }
+
+    @Test
+    public void shouldProcessNulSeparatedArgumentsAsArguments() throws Exception {
+        // given
+        String[][] commandLines = {{}, {"test"}, {"-n", "first name", "--city", "\u0142\u00f3d\u017a", "operand"},
+                {"-n", "", "-c", "y"}, {"-vay", "-n", "x", "", "operand"}, {"-n", "x", "--", "-c", "y"}, {"-c"}};
+
+        for (String[] commandLine : commandLines) {
+            ArgumentProcessor expected = new ArgumentProcessor();
+            expected.initialize(commandLine, new TestObject());
+            StringBuilder bytes = new StringBuilder();
+            for (String argument : commandLine) {
+                bytes.append(argument).append('\0');
+            }
+
+            // when
+            argumentProcessor.initialize(ByteBuffer.wrap(bytes.toString().getBytes(StandardCharsets.UTF_8)), new TestObject());
+
+            // then
+            String description = Arrays.toString(commandLine);
+            assertThat(argumentProcessor.getOperands()).as(description).isEqualTo(expected.getOperands());
+            assertThat(argumentProcessor.getParameters()).as(description).hasSize(expected.getParameters().size());
+            for (int index = 0; index < expected.getParameters().size(); index++) {
+                Parameter parameter = argumentProcessor.getParameters().get(index);
+                assertThat(parameter.getOption()).as(description).isEqualTo(expected.getParameters().get(index).getOption());
+                assertThat(parameter.getArgument()).as(description).isEqualTo(expected.getParameters().get(index).getArgument());
+            }
+        }
+    }
+
+    @Test
+    public void shouldProcessNulSeparatedArgumentsFromBufferPosition() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        argumentProcessor.setBinders(UtilArgs.BINDERS);
+        ByteBuffer buffer = ByteBuffer.wrap("/usr/bin/app\0-o\0004\0-v\0operand".getBytes(StandardCharsets.UTF_8));
+        buffer.position(13);
+
+        // when
+        argumentProcessor.initialize(buffer, testObject);
+
+        // then
+        assertThat(testObject.number).isEqualTo(4);
+        assertThat(testObject.verbose).isTrue();
+        assertThat(argumentProcessor.getArguments()).isEqualTo(new String[]{"operand"});
+        assertThat(buffer.position()).isEqualTo(13);
+    }
+
+    @Test
+    public void shouldExposeOperandsAsView() throws Exception {
+        // given
+        String[] args = {"-n", "x", "--", "first file", "second", "-c"};
+
+        // when
+        argumentProcessor.initialize(args, new TestObject());
+
+        // then
+        assertThat(argumentProcessor.getOperandList()).containsExactly("first file", "second", "-c");
+        assertThat(argumentProcessor.getOperands()).isEqualTo("first file second -c");
+        assertThat(argumentProcessor.getOperands()).isSameAs(argumentProcessor.getOperands());
+        args[4] = "changed";
+        assertThat(argumentProcessor.getOperandList().get(1)).isEqualTo("changed");
+    }
+
+    @Test
+    public void shouldResetOperandsOnInitialization() throws Exception {
+        // given
+        argumentProcessor.initialize(new String[]{"first"}, new TestObject());
+        String operands = argumentProcessor.getOperands();
+
+        // when
+        argumentProcessor.initialize(new String[]{"-n", "x"}, new TestObject());
+
+        // then
+        assertThat(operands).isEqualTo("first");
+        assertThat(argumentProcessor.getOperands()).isEmpty();
+        assertThat(argumentProcessor.getOperandList()).isEmpty();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotModifyOperandList() throws Exception {
+        // given
+        argumentProcessor.initialize(new String[]{"first"}, new TestObject());
+
+        // expect
+        argumentProcessor.getOperandList().set(0, "second");
+    }
+
     private void assertParameterState(Parameter parameter, char option, String argument) {
         assertThat(parameter.getOption().name()).isEqualTo(option);
         assertThat(parameter.getArgument()).isEqualTo(argument);
@@ -580,4 +897,15 @@ public class ArgumentProcessorTest {
 
         String noOptionString;
     }
+
+    private static final class CountedObject {
+        @Option(name = 'v', counted = true)
+        int verbosity;
+
+        @Option(name = 'q')
+        boolean quiet;
+
+        @Option(name = 'x')
+        String value;
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.ColumnarBatch.BooleanColumn;
+import com.nilcaream.utilargs.ColumnarBatch.DoubleColumn;
+import com.nilcaream.utilargs.ColumnarBatch.IntColumn;
+import com.nilcaream.utilargs.ColumnarBatch.LongColumn;
+import com.nilcaream.utilargs.ColumnarBatch.StringColumn;
+import com.nilcaream.utilargs.model.Option;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ColumnarBatchTest {
+
+    private final CompiledParser<TestObject> parser = CompiledParser.compile(TestObject.class);
+
+    @Test
+    public void shouldParseColumns() throws Exception {
+        // given
+        List<String[]> vectors = Arrays.asList(
+                "-i 1 -l 10000000000 -d 0.5 -b -s first -vv --unit SECONDS operand".split(" "),
+                "-s second -v".split(" "),
+                "-i 3 -s first --short 7 -- -b".split(" "));
+
+        // when
+        ColumnarBatch batch = parser.parseColumns(vectors);
+
+        // then
+        assertThat(batch.size()).isEqualTo(3);
+        assertThat(batch.getColumns()).hasSize(8);
+
+        IntColumn integers = (IntColumn) batch.getColumn("-i");
+        assertThat(integers.get(0)).isEqualTo(1);
+        assertThat(integers.isPresent(1)).isFalse();
+        assertThat(integers.get(2)).isEqualTo(3);
+
+        LongColumn longs = (LongColumn) batch.getColumn("-l");
+        assertThat(longs.get(0)).isEqualTo(10000000000L);
+        assertThat(longs.isPresent(2)).isFalse();
+
+        assertThat(((DoubleColumn) batch.getColumn("-d")).get(0)).isEqualTo(0.5);
+
+        BooleanColumn flags = (BooleanColumn) batch.getColumn("-b");
+        assertThat(flags.get(0)).isTrue();
+        assertThat(flags.get(1)).isFalse();
+        assertThat(flags.get(2)).isFalse();
+
+        IntColumn verbosity = (IntColumn) batch.getColumn("-v");
+        assertThat(verbosity.get(0)).isEqualTo(2);
+        assertThat(verbosity.get(1)).isEqualTo(1);
+        assertThat(verbosity.get(2)).isEqualTo(0);
+
+        StringColumn strings = (StringColumn) batch.getColumn("--string");
+        assertThat(strings.getDictionary()).containsExactly("first", "second");
+        assertThat(strings.getCode(0)).isEqualTo(0);
+        assertThat(strings.getCode(1)).isEqualTo(1);
+        assertThat(strings.getCode(2)).isEqualTo(0);
+        assertThat(strings.get(2)).isEqualTo("first");
+
+        StringColumn units = (StringColumn) batch.getColumn("--unit");
+        assertThat(units.get(0)).isEqualTo("SECONDS");
+        assertThat(units.get(1)).isNull();
+        assertThat(units.getCode(1)).isEqualTo(-1);
+
+        assertThat(((IntColumn) batch.getColumn("--short")).get(2)).isEqualTo(7);
+    }
+
+    @Test
+    public void shouldMarkInvalidArguments() throws Exception {
+        // given
+        List<String[]> vectors = Arrays.asList("-i x -d 1".split(" "), "--short 100000".split(" "));
+
+        // when
+        ColumnarBatch batch = parser.parseColumns(vectors);
+
+        // then
+        assertThat(batch.getColumn("-i").isPresent(0)).isTrue();
+        assertThat(batch.getColumn("-i").isInvalid(0)).isTrue();
+        assertThat(((IntColumn) batch.getColumn("-i")).get(0)).isEqualTo(0);
+        assertThat(batch.getColumn("-d").isInvalid(0)).isFalse();
+        assertThat(batch.getColumn("--short").isInvalid(1)).isTrue();
+    }
+
+    @Test
+    public void shouldMarkInvalidNumbers() throws Exception {
+        // given
+        List<String[]> vectors = Arrays.asList(
+                "-i 2147483648 -l 9223372036854775808 -d 1,5".split(" "),
+                "-i -2147483648 -l -9223372036854775808 -d -1e3".split(" "),
+                "-i 1.0 -l x -d abc --short -32768".split(" "));
+
+        // when
+        ColumnarBatch batch = parser.parseColumns(vectors);
+
+        // then
+        for (String key : new String[]{"-i", "-l", "-d"}) {
+            assertThat(batch.getColumn(key).isInvalid(0)).as(key).isTrue();
+            assertThat(batch.getColumn(key).isInvalid(1)).as(key).isFalse();
+            assertThat(batch.getColumn(key).isInvalid(2)).as(key).isTrue();
+        }
+        assertThat(((IntColumn) batch.getColumn("-i")).get(1)).isEqualTo(Integer.MIN_VALUE);
+        assertThat(((LongColumn) batch.getColumn("-l")).get(1)).isEqualTo(Long.MIN_VALUE);
+        assertThat(((DoubleColumn) batch.getColumn("-d")).get(1)).isEqualTo(-1000.0);
+        assertThat(batch.getColumn("--short").isInvalid(2)).isFalse();
+        assertThat(((IntColumn) batch.getColumn("--short")).get(2)).isEqualTo(-32768);
+    }
+
+    @Test
+    public void shouldStoreUserTypesNamedAsPrimitivesInStringColumns() throws Exception {
+        // when
+        ColumnarBatch batch = CompiledParser.compile(UserTypeObject.class)
+                .parseColumns(Arrays.<String[]>asList("-d 1.5x -l 2".split(" ")));
+
+        // then
+        assertThat(batch.getColumn("-d")).isInstanceOf(StringColumn.class);
+        assertThat(((StringColumn) batch.getColumn("-d")).get(0)).isEqualTo("1.5x");
+        assertThat(batch.getColumn("-l")).isInstanceOf(StringColumn.class);
+        assertThat(batch.getColumn("-l").isInvalid(0)).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMultiValuedOptions() throws Exception {
+        // expect
+        CompiledParser.compile(MultiValuedObject.class).parseColumns(new ArrayList<String[]>());
+    }
+
+    @Test
+    public void shouldGrowColumnsOfIterator() throws Exception {
+        // given
+        List<String[]> vectors = new ArrayList<>();
+        for (int index = 0; index < 5000; index++) {
+            vectors.add(index % 3 == 0 ? new String[]{"-l", String.valueOf(index)} : new String[]{"-b"});
+        }
+
+        // when
+        ColumnarBatch batch = parser.parseColumns(vectors.iterator());
+
+        // then
+        assertThat(batch.size()).isEqualTo(5000);
+        LongColumn longs = (LongColumn) batch.getColumn("-l");
+        BooleanColumn flags = (BooleanColumn) batch.getColumn("-b");
+        for (int index = 0; index < 5000; index++) {
+            assertThat(longs.isPresent(index)).isEqualTo(index % 3 == 0);
+            assertThat(longs.get(index)).isEqualTo(index % 3 == 0 ? index : 0);
+            assertThat(flags.get(index)).isEqualTo(index % 3 != 0);
+        }
+        assertThat(longs.getPresence()[0]).isEqualTo(0x9249249249249249L);
+    }
+
+    @Test
+    public void shouldReturnNullColumnOfUnknownOption() throws Exception {
+        // expect
+        assertThat(parser.parseColumns(new ArrayList<String[]>()).getColumn("--unknown")).isNull();
+    }
+
+    private static final class TestObject {
+
+        @Option(name = 'i')
+        int integer;
+
+        @Option(name = 'l')
+        Long longValue;
+
+        @Option(name = 'd')
+        double doubleValue;
+
+        @Option(name = 'b')
+        boolean flag;
+
+        @Option(name = 'v', counted = true)
+        int verbosity;
+
+        @Option(name = 's', longName = "string")
+        String string;
+
+        @Option(longName = "unit")
+        TimeUnit unit;
+
+        @Option(longName = "short")
+        short shortValue;
+    }
+
+    private static final class UserTypeObject {
+
+        @Option(name = 'd')
+        UserTypes.Double doubleValue;
+
+        @Option(name = 'l')
+        UserTypes.Long longValue;
+    }
+
+    static final class UserTypes {
+
+        static final class Double {
+        }
+
+        static final class Long {
+        }
+    }
+
+    private static final class MultiValuedObject {
+
+        @Option(name = 'p')
+        int[] ports;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.model.Option;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+
+public class CommandLineLogTest {
+
+    private final CompiledParser<TestObject> parser = CompiledParser.compile(TestObject.class);
+
+    @Test
+    public void shouldReadArgumentsOfLines() throws Exception {
+        // given
+        Path path = Files.createTempFile("command", ".log");
+        Files.write(path, "-n 'first name' -c 1\r\n\n  \nsecondó \"x y\"\n-c 3".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        List<String> lines;
+        try (Stream<String[]> arguments = new CommandLineLog().arguments(path)) {
+            lines = arguments.map(line -> String.join("|", line)).collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(lines).containsExactly("-n|first name|-c|1", "secondó|x y", "-c|3");
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldParseLinesInParallelInFileOrder() throws Exception {
+        // given
+        Path path = Files.createTempFile("command", ".log");
+        StringBuilder content = new StringBuilder();
+        for (int index = 0; index < 5000; index++) {
+            content.append("-n \"name ").append(index).append("\" -c ").append(index).append(" operand\n");
+        }
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        for (CommandLineLog log : new CommandLineLog[]{new CommandLineLog(), new CommandLineLog(100, 1000)}) {
+            // when
+            List<ParseResult<TestObject>> results;
+            try (Stream<ParseResult<TestObject>> stream = log.parse(path, parser).parallel()) {
+                results = stream.collect(Collectors.toList());
+            }
+
+            // then
+            assertThat(results).hasSize(5000);
+            for (int index = 0; index < results.size(); index++) {
+                assertThat(results.get(index).getWrapper().name).isEqualTo("name " + index);
+                assertThat(results.get(index).getWrapper().count).isEqualTo(index);
+                assertThat(results.get(index).getOperands()).isEqualTo("operand");
+            }
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldSplitAtLineBoundaries() throws Exception {
+        // given
+        Path path = Files.createTempFile("command", ".log");
+        StringBuilder content = new StringBuilder();
+        for (int index = 0; index < 1000; index++) {
+            content.append("-c ").append(index).append("\r\n");
+        }
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        // when
+        long splits;
+        long sum;
+        try (Stream<String[]> arguments = new CommandLineLog(64, 100).arguments(path)) {
+            splits = countSplits(arguments.spliterator());
+        }
+        try (Stream<String[]> arguments = new CommandLineLog(64, 100).arguments(path).parallel()) {
+            sum = arguments.mapToLong(line -> Long.parseLong(line[1])).sum();
+        }
+
+        // then
+        assertThat(splits).isGreaterThan(1);
+        assertThat(sum).isEqualTo(999 * 1000 / 2);
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldFailOnLineLongerThanWindow() throws Exception {
+        // given
+        Path path = Files.createTempFile("command", ".log");
+        Files.write(path, "-c 1\n-n longer-line\n-c 2".getBytes(StandardCharsets.UTF_8));
+
+        try (Stream<String[]> arguments = new CommandLineLog(8, 100).arguments(path)) {
+            // when
+            arguments.count();
+            fail("Expected I/O exception");
+        } catch (UncheckedIOException e) {
+            // then
+            assertThat(e.getCause().getMessage()).contains("Line longer than 8 bytes");
+        }
+        Files.delete(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldFailOnMissingFile() throws Exception {
+        new CommandLineLog().arguments(Files.createTempDirectory("command").resolve("missing.log"));
+    }
+
+    private static long countSplits(Spliterator<String[]> spliterator) {
+        Spliterator<String[]> prefix = spliterator.trySplit();
+        return prefix == null ? 1 : countSplits(prefix) + countSplits(spliterator);
+    }
+
+    private static final class TestObject {
+
+        @Option(name = 'n')
+        String name;
+
+        @Option(name = 'c')
+        int count;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CommandLineTokenizerTest {
+
+    @Test
+    public void shouldSplitOnWhitespace() throws Exception {
+        // expect
+        assertThat(CommandLineTokenizer.tokenize("  -a  1\t--name\r\nvalue ")).isEqualTo(new String[]{"-a", "1", "--name", "value"});
+    }
+
+    @Test
+    public void shouldReturnEmptyArrayOfBlankLine() throws Exception {
+        // expect
+        assertThat(CommandLineTokenizer.tokenize("")).isEmpty();
+        assertThat(CommandLineTokenizer.tokenize(" \t ")).isEmpty();
+    }
+
+    @Test
+    public void shouldHandleQuotes() throws Exception {
+        // expect
+        assertThat(CommandLineTokenizer.tokenize("-n 'a b' --x \"c d\" e'f g'h \"\" ''"))
+                .isEqualTo(new String[]{"-n", "a b", "--x", "c d", "ef gh", "", ""});
+        assertThat(CommandLineTokenizer.tokenize("'a\"b' \"c'd\"")).isEqualTo(new String[]{"a\"b", "c'd"});
+    }
+
+    @Test
+    public void shouldHandleEscapes() throws Exception {
+        // expect
+        assertThat(CommandLineTokenizer.tokenize("a\\ b \\'c\\\" \\\\")).isEqualTo(new String[]{"a b", "'c\"", "\\"});
+        assertThat(CommandLineTokenizer.tokenize("\"a\\\"b\\$c\\d\\\\\"")).isEqualTo(new String[]{"a\"b$c\\d\\"});
+        assertThat(CommandLineTokenizer.tokenize("'a\\b'")).isEqualTo(new String[]{"a\\b"});
+    }
+
+    @Test
+    public void shouldRemoveLineContinuations() throws Exception {
+        // expect
+        assertThat(CommandLineTokenizer.tokenize("a\\\nb")).isEqualTo(new String[]{"ab"});
+        assertThat(CommandLineTokenizer.tokenize("\"a\\\nb\" c")).isEqualTo(new String[]{"ab", "c"});
+        assertThat(CommandLineTokenizer.tokenize("-n \\\n  x \\\n")).isEqualTo(new String[]{"-n", "x"});
+        assertThat(CommandLineTokenizer.tokenize("'a\\\nb'")).isEqualTo(new String[]{"a\\\nb"});
+    }
+
+    @Test
+    public void shouldExtendUnclosedQuotesToEnd() throws Exception {
+        // expect
+        assertThat(CommandLineTokenizer.tokenize("-n 'a b")).isEqualTo(new String[]{"-n", "a b"});
+        assertThat(CommandLineTokenizer.tokenize("-n \"a b")).isEqualTo(new String[]{"-n", "a b"});
+        assertThat(CommandLineTokenizer.tokenize("-n a\\")).isEqualTo(new String[]{"-n", "a"});
+    }
+
+    @Test
+    public void shouldTokenizeRegion() throws Exception {
+        // expect
+        assertThat(CommandLineTokenizer.tokenize("java -a 1 | grep x", 5, 10)).isEqualTo(new String[]{"-a", "1"});
+    }
+
+    @Test
+    public void shouldMoveOverArguments() throws Exception {
+        // given
+        CommandLineTokenizer tokenizer = new CommandLineTokenizer(" --name 'a b'  c");
+
+        // expect
+        assertThat(tokenizer.next()).isTrue();
+        assertThat(tokenizer.length()).isEqualTo(6);
+        assertThat(tokenizer.charAt(2)).isEqualTo('n');
+        assertThat(tokenizer.getStart()).isEqualTo(1);
+        assertThat(tokenizer.getEnd()).isEqualTo(7);
+        assertThat(tokenizer.next()).isTrue();
+        assertThat(tokenizer.toString()).isEqualTo("a b");
+        assertThat(tokenizer.length()).isEqualTo(3);
+        assertThat(tokenizer.getStart()).isEqualTo(8);
+        assertThat(tokenizer.getEnd()).isEqualTo(13);
+        assertThat(tokenizer.next()).isTrue();
+        assertThat(tokenizer.toString()).isEqualTo("c");
+        assertThat(tokenizer.subSequence(0, 1).toString()).isEqualTo("c");
+        assertThat(tokenizer.next()).isFalse();
+        assertThat(tokenizer.length()).isEqualTo(0);
+        assertThat(tokenizer.next()).isFalse();
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.model.Option;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CompiledParserTest {
+
+    private final CompiledParser<TestObject> parser = CompiledParser.compile(TestObject.class);
+
+    @Test
+    public void shouldParseIntoNewWrapper() throws Exception {
+        // when
+        ParseResult<TestObject> first = parser.parse("-n first -vv --count 3 -- operand -x".split(" "));
+        ParseResult<TestObject> second = parser.parse("-n second".split(" "));
+
+        // then
+        assertThat(first.getWrapper()).isNotSameAs(second.getWrapper());
+        assertThat(first.getWrapper().name).isEqualTo("first");
+        assertThat(first.getWrapper().verbosity).isEqualTo(2);
+        assertThat(first.getWrapper().count).isEqualTo(3);
+        assertThat(first.getOperands()).isEqualTo("operand -x");
+        assertThat(first.getOperandList()).containsExactly("operand", "-x");
+        assertThat(first.getParameters()).hasSize(3);
+        assertThat(second.getWrapper().name).isEqualTo("second");
+        assertThat(second.getWrapper().count).isEqualTo(0);
+        assertThat(second.getOperandList()).isEmpty();
+    }
+
+    @Test
+    public void shouldParseCommandLine() throws Exception {
+        // when
+        ParseResult<TestObject> result = parser.parse("-n 'first name' -vv --count 3 -- operand -x");
+
+        // then
+        assertThat(result.getWrapper().name).isEqualTo("first name");
+        assertThat(result.getWrapper().verbosity).isEqualTo(2);
+        assertThat(result.getWrapper().count).isEqualTo(3);
+        assertThat(result.getOccurrences("-v")).isEqualTo(2);
+        assertThat(result.getOperandList()).containsExactly("operand", "-x");
+        assertThat(result.getArguments()).isEqualTo(new String[]{"operand", "-x"});
+    }
+
+    @Test
+    public void shouldParseNulSeparatedArguments() throws Exception {
+        // given
+        ByteBuffer arguments = ByteBuffer.wrap("-n\0first\0-vv\0--count\0003\0operand".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        ParseResult<TestObject> result = parser.parse(arguments);
+
+        // then
+        assertThat(result.getWrapper().name).isEqualTo("first");
+        assertThat(result.getWrapper().verbosity).isEqualTo(2);
+        assertThat(result.getWrapper().count).isEqualTo(3);
+        assertThat(result.getOperandList()).containsExactly("operand");
+    }
+
+    @Test
+    public void shouldReportPresence() throws Exception {
+        // when
+        ParseResult<TestObject> result = parser.parse("-v -n x -v -v".split(" "));
+
+        // then
+        assertThat(result.isPresent("-n")).isTrue();
+        assertThat(result.isPresent("--name")).isTrue();
+        assertThat(result.isPresent("--count")).isFalse();
+        assertThat(result.isPresent("--unknown")).isFalse();
+        assertThat(result.getOccurrences("-n")).isEqualTo(1);
+        assertThat(result.getOccurrences("-v")).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldReportBindingErrors() throws Exception {
+        // when
+        ParseResult<TestObject> result = parser.parse("--count x".split(" "));
+
+        // then
+        assertThat(result.getBindingErrors()).hasSize(1);
+        assertThat(result.isPresent("--count")).isTrue();
+        assertThat(result.getWrapper().count).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldAcceptAbbreviatedLongOptions() throws Exception {
+        // when
+        ParseResult<TestObject> result = parser.withAbbreviatedLongOptions(true).parse("--na x --c 4".split(" "));
+
+        // then
+        assertThat(result.getWrapper().name).isEqualTo("x");
+        assertThat(result.getWrapper().count).isEqualTo(4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireNoArgumentConstructor() throws Exception {
+        CompiledParser.compile(Integer.class);
+    }
+
+    @Test
+    public void shouldParseConcurrently() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // when
+        for (int task = 0; task < 64; task++) {
+            final int id = task;
+            results.add(executor.submit(() -> {
+                boolean valid = true;
+                for (int index = 0; index < 500; index++) {
+                    String name = id + "-" + index;
+                    ParseResult<TestObject> result = parser.parse(new String[]{"-n", name, "--count", String.valueOf(index), "operand" + id});
+                    valid &= name.equals(result.getWrapper().name) && result.getWrapper().count == index
+                            && result.getOperands().equals("operand" + id) && result.getBindingErrors().isEmpty();
+                }
+                return valid;
+            }));
+        }
+
+        // then
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldParseBatch() throws Exception {
+        // given
+        List<String[]> vectors = Arrays.asList("-n first -v".split(" "), "--count x".split(" "), "-n third operand".split(" "));
+
+        // when
+        List<ParseResult<TestObject>> results = parser.parseAll(vectors);
+
+        // then
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getWrapper().name).isEqualTo("first");
+        assertThat(results.get(0).getOccurrences("-v")).isEqualTo(1);
+        assertThat(results.get(1).getWrapper()).isNotSameAs(results.get(0).getWrapper());
+        assertThat(results.get(1).getWrapper().name).isNull();
+        assertThat(results.get(1).getBindingErrors()).hasSize(1);
+        assertThat(results.get(1).isPresent("-v")).isFalse();
+        assertThat(results.get(2).getWrapper().name).isEqualTo("third");
+        assertThat(results.get(2).getBindingErrors()).isEmpty();
+        assertThat(results.get(2).getOperands()).isEqualTo("operand");
+    }
+
+    @Test
+    public void shouldParseBatchInParallelInInputOrder() throws Exception {
+        // given
+        List<String[]> vectors = new ArrayList<>();
+        for (int index = 0; index < 10000; index++) {
+            vectors.add(new String[]{"--count", String.valueOf(index), "operand" + index});
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // when
+        List<ParseResult<TestObject>> results = parser.parseAll(vectors, pool);
+
+        // then
+        assertThat(results).hasSize(vectors.size());
+        for (int index = 0; index < vectors.size(); index++) {
+            assertThat(results.get(index).getWrapper().count).isEqualTo(index);
+            assertThat(results.get(index).getOperands()).isEqualTo("operand" + index);
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void shouldParseEmptyBatch() throws Exception {
+        // expect
+        assertThat(parser.parseAll(new ArrayList<String[]>())).isEmpty();
+        assertThat(parser.parseAll(new ArrayList<String[]>(), ForkJoinPool.commonPool())).isEmpty();
+    }
+
+    @Test
+    public void shouldParseIntoSubclassWrapper() throws Exception {
+        // given
+        CompiledParser<BaseObject> subclassParser = CompiledParser.compile(BaseObject.class, ExtendedObject::new);
+
+        // when
+        ParseResult<BaseObject> arguments = subclassParser.parse("-n first -vv operand".split(" "));
+        ParseResult<BaseObject> commandLine = subclassParser.parse("-n second -v");
+        ParseResult<BaseObject> buffer = subclassParser.parse(ByteBuffer.wrap("-n\0third\0".getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        assertThat(arguments.getWrapper()).isInstanceOf(ExtendedObject.class);
+        assertThat(arguments.getWrapper().name).isEqualTo("first");
+        assertThat(arguments.getWrapper().verbosity).isEqualTo(2);
+        assertThat(arguments.getOccurrences("-v")).isEqualTo(2);
+        assertThat(arguments.getOperands()).isEqualTo("operand");
+        assertThat(arguments.getBindingErrors()).isEmpty();
+        assertThat(commandLine.getWrapper().name).isEqualTo("second");
+        assertThat(commandLine.getWrapper().verbosity).isEqualTo(1);
+        assertThat(buffer.getWrapper().name).isEqualTo("third");
+    }
+
+    static class BaseObject {
+
+        @Option(name = 'n', longName = "name")
+        String name;
+
+        @Option(name = 'v', counted = true)
+        int verbosity;
+    }
+
+    static final class ExtendedObject extends BaseObject {
+
+        int other;
+    }
+
+    private static final class TestObject {
+
+        @Option(name = 'n', longName = "name")
+        String name;
+
+        @Option(name = 'v', counted = true)
+        int verbosity;
+
+        @Option(longName = "count")
+        int count;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.model.Option;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class MultiValuedOptionTest {
+
+    @Test
+    public void shouldBindRepeatedOptionsToList() {
+        // given
+        TestObject wrapper = new TestObject();
+
+        // when
+        UtilArgs ua = new UtilArgs(new String[]{"-I", "include", "-v", "-I", "/usr/include", "file.c"}, wrapper);
+
+        // then
+        assertThat(wrapper.includes).containsExactly("include", "/usr/include");
+        assertThat(wrapper.verbose).isTrue();
+        assertThat(ua.getOperands()).isEqualTo("file.c");
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldSplitCommaSeparatedValues() {
+        // given
+        TestObject wrapper = new TestObject();
+
+        // when
+        new UtilArgs(new String[]{"-p", "80,443", "--port", "8080", "-w", "0.5,-1e3", "-s", "10000000000,-1"}, wrapper);
+
+        // then
+        assertThat(wrapper.ports).isEqualTo(new int[]{80, 443, 8080});
+        assertThat(wrapper.weights).isEqualTo(new double[]{0.5, -1000});
+        assertThat(wrapper.sizes).isEqualTo(new long[]{10000000000L, -1});
+    }
+
+    @Test
+    public void shouldConvertElementsWithBinders() {
+        // given
+        TestObject wrapper = new TestObject();
+
+        // when
+        new UtilArgs(new String[]{"-f", "a.txt,/tmp/b.txt", "-n", "1,2", "-t", "x,y"}, wrapper);
+
+        // then
+        assertThat(wrapper.files).isEqualTo(new Path[]{Paths.get("a.txt"), Paths.get("/tmp/b.txt")});
+        assertThat(wrapper.numbers).isEqualTo(Arrays.asList(1, 2));
+        assertThat((Object) wrapper.tags).isEqualTo(Arrays.asList("x", "y"));
+    }
+
+    @Test
+    public void shouldKeepEmptyElements() {
+        // given
+        TestObject wrapper = new TestObject();
+
+        // when
+        new UtilArgs(new String[]{"-I", "a,,b,", "-I", ""}, wrapper);
+
+        // then
+        assertThat(wrapper.includes).containsExactly("a", "", "b", "", "");
+    }
+
+    @Test
+    public void shouldReportInvalidElement() {
+        // given
+        TestObject wrapper = new TestObject();
+
+        // when
+        UtilArgs ua = new UtilArgs(new String[]{"-p", "80", "-p", "443,http", "-v"}, wrapper);
+
+        // then
+        assertThat(wrapper.ports).isNull();
+        assertThat(wrapper.verbose).isTrue();
+        assertThat(ua.getBindingErrors()).hasSize(1);
+        assertThat(ua.getBindingErrors().get(0).getMessage()).isEqualTo("Invalid value 2 of field ports: http");
+        assertThat(ua.getBindingErrors().get(0).getParameter().getArguments()).containsExactly("80", "443,http");
+    }
+
+    @Test
+    public void shouldBindRepeatedOptionsOfCommandLine() {
+        // given
+        TestObject wrapper = new TestObject();
+
+        // when
+        UtilArgs ua = UtilArgs.process("-I 'a b' -p 1,2 -I c -- -I d", wrapper);
+
+        // then
+        assertThat(wrapper.includes).containsExactly("a b", "c");
+        assertThat(wrapper.ports).isEqualTo(new int[]{1, 2});
+        assertThat(ua.getOperandList()).containsExactly("-I", "d");
+    }
+
+    @Test
+    public void shouldBindRepeatedPropertiesKeys() throws IOException {
+        // given
+        TestObject wrapper = new TestObject();
+        TestObject parallelWrapper = new TestObject();
+        Path path = Files.createTempFile("util-args", ".properties");
+        Files.write(path, Arrays.asList("port=1,2", "include=a", "port=3", "include=b"), StandardCharsets.UTF_8);
+
+        // when
+        try {
+            UtilArgs.process(path, wrapper);
+            UtilArgs.processParallel(path, parallelWrapper);
+        } finally {
+            Files.delete(path);
+        }
+
+        // then
+        assertThat(wrapper.ports).isEqualTo(new int[]{1, 2, 3});
+        assertThat(wrapper.includes).containsExactly("a", "b");
+        assertThat(parallelWrapper.ports).isEqualTo(new int[]{1, 2, 3});
+        assertThat(parallelWrapper.includes).containsExactly("a", "b");
+    }
+
+    @Test
+    public void shouldReadValuesFromFile() throws IOException {
+        // given
+        TestObject wrapper = new TestObject();
+        Path path = Files.createTempFile("util-args", ".values");
+        Files.write(path, "0.1,0.2\r\n0.3\n\n0.4,\n0.5\n".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        UtilArgs ua;
+        try {
+            ua = new UtilArgs(new String[]{"-w", "@" + path, "-w", "1", "-I", "@" + path}, wrapper);
+        } finally {
+            Files.delete(path);
+        }
+
+        // then
+        assertThat(wrapper.weights).isEqualTo(new double[]{0.1, 0.2, 0.3, 0.4, 0.5, 1});
+        assertThat(wrapper.includes).containsExactly("@" + path);
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldReportMissingValuesFile() {
+        // given
+        TestObject wrapper = new TestObject();
+
+        // when
+        UtilArgs ua = new UtilArgs(new String[]{"-w", "@/nonexistent/weights.txt"}, wrapper);
+
+        // then
+        assertThat(wrapper.weights).isNull();
+        assertThat(ua.getBindingErrors()).hasSize(1);
+        assertThat(ua.getBindingErrors().get(0).getMessage()).isEqualTo("Unable to read values of field weights");
+    }
+
+    @Test
+    public void shouldParseLongValuesInParallel() {
+        // given
+        TestObject wrapper = new TestObject();
+        StringBuilder value = new StringBuilder();
+        for (int index = 0; index < 20000; index++) {
+            value.append(index == 0 ? "" : ",").append(index / 8.0);
+        }
+        ArgumentProcessor processor = new ArgumentProcessor();
+        processor.setBinders(UtilArgs.BINDERS);
+        processor.setValuesPool(ForkJoinPool.commonPool());
+        processor.setParallelValuesLength(0);
+
+        // when
+        processor.initialize(new String[]{"--weights", value.toString(), "-w", "-1"}, wrapper);
+
+        // then
+        assertThat(wrapper.weights).hasSize(20001);
+        assertThat(wrapper.weights[19999]).isEqualTo(19999 / 8.0);
+        assertThat(wrapper.weights[20000]).isEqualTo(-1);
+        assertThat(processor.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldReuseParserState() {
+        // given
+        CompiledParser<TestObject> parser = CompiledParser.compile(TestObject.class);
+
+        // when
+        List<ParseResult<TestObject>> results = parser.parseAll(Arrays.asList(
+                new String[]{"-p", "1", "-p", "2"}, new String[]{"-p", "3"}));
+
+        // then
+        assertThat(results.get(0).getWrapper().ports).isEqualTo(new int[]{1, 2});
+        assertThat(results.get(1).getWrapper().ports).isEqualTo(new int[]{3});
+    }
+
+    public static final class TestObject {
+
+        @Option(name = 'I', longName = "include")
+        List<String> includes;
+
+        @Option(name = 'p', longName = "port")
+        int[] ports;
+
+        @Option(name = 's')
+        long[] sizes;
+
+        @Option(name = 'w', longName = "weights")
+        double[] weights;
+
+        @Option(name = 'f')
+        Path[] files;
+
+        @Option(name = 'n')
+        Collection<Integer> numbers;
+
+        @Option(name = 't')
+        Iterable<String> tags;
+
+        @Option(name = 'v')
+        boolean verbose;
+    }
+}
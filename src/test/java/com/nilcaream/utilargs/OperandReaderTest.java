@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+
+public class OperandReaderTest {
+
+    @Test
+    public void shouldReadLines() throws Exception {
+        // given
+        OperandReader reader = new OperandReader(input("first\r\n\nsecond file\nłódź"), OperandReader.NEWLINE);
+        List<String> operands = new ArrayList<>();
+
+        // when
+        reader.forEach(operands::add);
+
+        // then
+        assertThat(operands).containsExactly("first", "second file", "łódź");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    public void shouldReadNulSeparatedRecords() throws Exception {
+        // given
+        OperandReader reader = new OperandReader(input("./a\nb\0./c\r\0\0./d\0"), OperandReader.NUL);
+
+        // when
+        List<String> operands = reader.stream().collect(Collectors.toList());
+
+        // then
+        assertThat(operands).containsExactly("./a\nb", "./c\r", "./d");
+    }
+
+    @Test
+    public void shouldReadRecordsLongerThanBuffer() throws Exception {
+        // given
+        String content = "first\nłódź łódź\n\nthird operand\r\nx";
+
+        for (int bufferSize = 1; bufferSize < 20; bufferSize++) {
+            OperandReader reader = new OperandReader(input(content), OperandReader.NEWLINE, bufferSize);
+
+            // when
+            List<String> operands = reader.stream().collect(Collectors.toList());
+
+            // then
+            assertThat(operands).as("buffer " + bufferSize)
+                    .containsExactly("first", "łódź łódź", "third operand", "x");
+        }
+    }
+
+    @Test
+    public void shouldReadOperandsLazily() throws Exception {
+        // given
+        InputStream input = new InputStream() {
+            private long remaining = 50_000_000;
+
+            @Override
+            public int read() {
+                return remaining-- > 0 ? (remaining % 10 == 0 ? 0 : 'a') : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                int count = 0;
+                while (count < length && remaining > 0) {
+                    bytes[offset + count++] = (byte) read();
+                }
+                return count == 0 ? -1 : count;
+            }
+        };
+
+        // when
+        long count = new OperandReader(input, OperandReader.NUL).stream().filter(operand -> operand.length() == 9).count();
+
+        // then
+        assertThat(count).isEqualTo(5_000_000);
+    }
+
+    @Test
+    public void shouldReplaceStandardInputOperand() throws Exception {
+        // given
+        List<String> operands = Arrays.asList("first", "-", "last", "-");
+
+        // when
+        List<String> result = OperandReader.operands(operands, input("a\0b\0"), OperandReader.NUL).collect(Collectors.toList());
+
+        // then
+        assertThat(result).containsExactly("first", "a", "b", "last");
+    }
+
+    @Test
+    public void shouldReadStandardInputOperandLazily() throws Exception {
+        // given
+        AtomicInteger reads = new AtomicInteger();
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return reads.incrementAndGet() % 2 == 0 ? '\n' : 'x';
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                bytes[offset] = (byte) read();
+                return 1;
+            }
+        };
+
+        // when
+        List<String> result = OperandReader.operands(Arrays.asList("first", "-"), endless, OperandReader.NEWLINE)
+                .limit(3).collect(Collectors.toList());
+
+        // then
+        assertThat(result).containsExactly("first", "x", "x");
+        assertThat(reads.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldThrowUncheckedExceptionFromStream() throws Exception {
+        // given
+        InputStream input = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("broken pipe");
+            }
+        };
+
+        try {
+            // when
+            new OperandReader(input, OperandReader.NEWLINE).stream().count();
+            fail("Expected I/O exception");
+        } catch (UncheckedIOException e) {
+            // then
+            assertThat(e.getCause().getMessage()).isEqualTo("broken pipe");
+        }
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -18,10 +18,17 @@ package com.nilcaream.utilargs;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
 
 /**
  * Krzysztof Smigielski 2/21/2017.
@@ -50,4 +57,111 @@ public class PropertiesProcessorTest {
         assertThat(arguments[4]).isEqualTo("--name");
         assertThat(arguments[5]).isEqualTo("Mike");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldStreamKeyValueLines() throws Exception {
+        // given
+        Path path = Paths.get(ClassLoader.getSystemResource("test.properties").toURI());
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+
+        // when
+        underTest.process(path, (line, separator) -> {
+            keys.add(line.substring(0, separator));
+            values.add(line.substring(separator + 1));
+        });
+
+        // then
+        assertThat(keys).containsExactly("city", "random", "name", "o");
+        assertThat(values).containsExactly("ABC City", "23838213", "Mike", "123123");
+    }
+
+    @Test
+    public void shouldProcessMappedFile() throws Exception {
+        // given
+        Path path = Paths.get(ClassLoader.getSystemResource("test.properties").toURI());
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+
+        // when
+        underTest.processMapped(path, (key, value) -> {
+            keys.add(key.toString());
+            values.add(value.toString());
+        });
+
+        // then
+        assertThat(keys).containsExactly("city", "random", "name", "o");
+        assertThat(values).containsExactly("ABC City", "23838213", "Mike", "123123");
+    }
+
+    @Test
+    public void shouldProcessMappedFileInWindows() throws Exception {
+        // given
+        Path path = Files.createTempFile("mapped", ".properties");
+        Files.write(path, "a=1\r\n#b=2\rc\u00f3=\u0144=3\n\nplain\r\nd=\ne=5".getBytes(StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+
+        for (int windowSize = 10; windowSize < 40; windowSize++) {
+            lines.clear();
+
+            // when
+            new PropertiesProcessor(windowSize).processMapped(path, (key, value) ->
+                    lines.add(key.length() + ":" + key + "|" + value.length() + ":" + value));
+
+            // then
+            assertThat(lines).as("window " + windowSize).containsExactly("1:a|1:1", "2:c\u00f3|3:\u0144=3", "1:d|0:", "1:e|1:5");
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldFailOnLineLongerThanWindow() throws Exception {
+        // given
+        Path path = Files.createTempFile("mapped", ".properties");
+        Files.write(path, "a=1\nlonger=line\nb=2".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            // when
+            new PropertiesProcessor(8).processMapped(path, (key, value) -> {
+            });
+            fail("Expected I/O exception");
+        } catch (IOException e) {
+            // then
+            assertThat(e.getMessage()).contains("Line longer than 8 bytes");
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    public void shouldProcessChunksInParallel() throws Exception {
+        // given
+        Path path = Files.createTempFile("parallel", ".properties");
+        StringBuilder content = new StringBuilder();
+        for (int index = 0; index < 100; index++) {
+            content.append(index % 2 == 0 ? "a=" : "b=").append(index).append(index % 3 == 0 ? "\r\n" : "\n");
+            content.append("#a=comment\nunknown=").append(index).append('\n');
+        }
+        content.append("a=\u0142ast");
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        for (int windowSize = 32; windowSize < 128; windowSize++) {
+            String[] values = new String[2];
+            int[] occurrences = new int[2];
+
+            // when
+            new PropertiesProcessor(windowSize).processParallel(path, pool, 2,
+                    key -> key.length() == 1 && key.charAt(0) != 'u' ? key.charAt(0) - 'a' : -1,
+                    (index, count, value) -> {
+                        values[index] = value;
+                        occurrences[index] = count;
+                    });
+
+            // then
+            assertThat(values).as("window " + windowSize).isEqualTo(new String[]{"\u0142ast", "99"});
+            assertThat(occurrences).as("window " + windowSize).isEqualTo(new int[]{51, 50});
+        }
+        pool.shutdown();
+        Files.delete(path);
+    }
+}
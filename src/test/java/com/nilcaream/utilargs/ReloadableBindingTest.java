@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs;
+
+import com.nilcaream.utilargs.model.Option;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class ReloadableBindingTest {
+
+    private static final long TIMEOUT = 10;
+
+    private Path directory;
+    private Path path;
+    private ReloadableBinding<Config> binding;
+    private List<Set<Option>> changes = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("reloadable");
+        path = directory.resolve("config.properties");
+        write(1000, "name=first", "size=1", "verbose=true");
+        binding = ReloadableBinding.load(path, Config::new);
+        binding.addListener((previous, current, changed) -> changes.add(changed));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        binding.close();
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void shouldBindInitialFile() throws Exception {
+        // expect
+        assertThat(binding.get().name).isEqualTo("first");
+        assertThat(binding.get().size).isEqualTo(1);
+        assertThat(binding.get().verbose).isTrue();
+        assertThat(binding.getUtilArgs().getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldNotReloadUnchangedFile() throws Exception {
+        // given
+        Config previous = binding.get();
+
+        // when
+        boolean reloaded = binding.reload();
+
+        // then
+        assertThat(reloaded).isFalse();
+        assertThat(binding.get()).isSameAs(previous);
+    }
+
+    @Test
+    public void shouldPublishNewWrapperWithChangedOptions() throws Exception {
+        // given
+        Config previous = binding.get();
+        write(2000, "name=first", "size=2", "verbose=true");
+
+        // when
+        boolean reloaded = binding.reload();
+
+        // then
+        assertThat(reloaded).isTrue();
+        assertThat(binding.get()).isNotSameAs(previous);
+        assertThat(previous.size).isEqualTo(1);
+        assertThat(binding.get().size).isEqualTo(2);
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0)).hasSize(1);
+        assertThat(changes.get(0).iterator().next().longName()).isEqualTo("size");
+    }
+
+    @Test
+    public void shouldNotNotifyWhenValuesAreEqual() throws Exception {
+        // given
+        write(3000, "# comment", "name=first", "size=1", "verbose=true");
+
+        // when
+        boolean reloaded = binding.reload();
+
+        // then
+        assertThat(reloaded).isTrue();
+        assertThat(changes).isEmpty();
+    }
+
+    @Test
+    public void shouldReloadOnFileChange() throws Exception {
+        try (ReloadableBinding<Config> watched = ReloadableBinding.watch(path, Config::new)) {
+            // given
+            CountDownLatch second = listenForName(watched, "second");
+
+            // when
+            write(4000, "name=second", "size=1");
+
+            // then
+            assertThat(second.await(TIMEOUT, TimeUnit.SECONDS)).isTrue();
+            assertThat(watched.get().name).isEqualTo("second");
+            assertThat(watched.get().verbose).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldNotifyAllListenersWhenOneFails() throws Exception {
+        // given
+        IllegalStateException failure = new IllegalStateException("listener");
+        binding.addListener((previous, current, changed) -> {
+            throw failure;
+        });
+        List<Set<Option>> laterChanges = new CopyOnWriteArrayList<>();
+        binding.addListener((previous, current, changed) -> laterChanges.add(changed));
+        write(5000, "name=first", "size=5", "verbose=true");
+
+        // when
+        try {
+            binding.reload();
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // then
+            assertThat(e).isSameAs(failure);
+        }
+        assertThat(binding.get().size).isEqualTo(5);
+        assertThat(changes).hasSize(1);
+        assertThat(laterChanges).hasSize(1);
+    }
+
+    @Test
+    public void shouldKeepWatchingWhenListenerFails() throws Exception {
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        try (ReloadableBinding<Config> watched = ReloadableBinding.watch(path, Config::new)) {
+            // given
+            List<Throwable> reported = new CopyOnWriteArrayList<>();
+            watched.addListener((previous, current, changed) -> {
+                if ("second".equals(current.name)) {
+                    throw new IllegalStateException("listener");
+                }
+            });
+            CountDownLatch second = listenForName(watched, "second");
+            CountDownLatch third = listenForName(watched, "third");
+            Thread.setDefaultUncaughtExceptionHandler((thread, e) -> reported.add(e));
+
+            // when
+            write(6000, "name=second", "size=1");
+            assertThat(second.await(TIMEOUT, TimeUnit.SECONDS)).isTrue();
+            write(7000, "name=third", "size=1");
+            assertThat(third.await(TIMEOUT, TimeUnit.SECONDS)).isTrue();
+
+            // then
+            assertThat(watched.get().name).isEqualTo("third");
+            assertThat(reported).hasSize(1);
+            assertThat(reported.get(0).getMessage()).isEqualTo("listener");
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+    }
+
+    private static CountDownLatch listenForName(ReloadableBinding<Config> binding, String name) {
+        CountDownLatch latch = new CountDownLatch(1);
+        binding.addListener((previous, current, changed) -> {
+            if (name.equals(current.name)) {
+                latch.countDown();
+            }
+        });
+        return latch;
+    }
+
+    private void write(long modified, String... lines) throws Exception {
+        Path temporary = directory.resolve("config.tmp");
+        Files.write(temporary, Arrays.asList(lines), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(temporary, FileTime.fromMillis(modified * 1000));
+        Files.move(temporary, path, java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Config {
+
+        @Option(longName = "name")
+        String name;
+
+        @Option(longName = "size")
+        int size;
+
+        @Option(longName = "verbose")
+        boolean verbose;
+    }
+}
@@ -16,10 +16,18 @@
 
 package com.nilcaream.utilargs;
 
+import com.nilcaream.utilargs.model.Operands;
 import com.nilcaream.utilargs.model.Option;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.fest.assertions.Assertions.assertThat;
 
@@ -46,6 +54,40 @@ public class UtilArgsTest {
         assertThat(ua.getOperands()).isEqualTo(operands);
     }
 
+    @Test
+    public void shouldBindPropertiesFile() throws Exception {
+        // given
+        Path path = Paths.get(ClassLoader.getSystemResource("test.properties").toURI());
+        PropertiesObject wrapper = new PropertiesObject();
+
+        // when
+        UtilArgs ua = UtilArgs.process(path, wrapper);
+
+        // then
+        assertThat(wrapper.city).isEqualTo("ABC City");
+        assertThat(wrapper.random).isEqualTo(23838213L);
+        assertThat(wrapper.name).isEqualTo("Mike");
+        assertThat(ua.getArguments()).isEmpty();
+        assertThat(ua.getOperands()).isEmpty();
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldBindPropertiesFileInParallel() throws Exception {
+        // given
+        Path path = Paths.get(ClassLoader.getSystemResource("test.properties").toURI());
+        PropertiesObject wrapper = new PropertiesObject();
+
+        // when
+        UtilArgs ua = UtilArgs.processParallel(path, wrapper);
+
+        // then
+        assertThat(wrapper.city).isEqualTo("ABC City");
+        assertThat(wrapper.random).isEqualTo(23838213L);
+        assertThat(wrapper.name).isEqualTo("Mike");
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
     @Test
     public void notExistingParameters() {
         // given
@@ -61,6 +103,26 @@ public class UtilArgsTest {
         assertThat(ua.getOperands()).isEqualTo("-t 6");
     }
 
+    @Test
+    public void shouldReportBindingErrors() {
+        // given
+        String[] args = "-v 2a -n name -a x1".split(" ");
+        TestObject wrapper = new TestObject();
+
+        // when
+        UtilArgs ua = new UtilArgs(args, wrapper);
+
+        // then
+        assertThat(wrapper.name).isEqualTo("name");
+        assertThat(wrapper.value).isEqualTo(0f);
+        assertThat(wrapper.amount).isNull();
+        assertThat(ua.getBindingErrors()).hasSize(2);
+        assertThat(ua.getBindingErrors().get(0).getParameter().getOption().name()).isEqualTo('v');
+        assertThat(ua.getBindingErrors().get(0).getCause()).isInstanceOf(NumberFormatException.class);
+        assertThat(ua.getBindingErrors().get(0).getStackTrace()).isEmpty();
+        assertThat(ua.getBindingErrors().get(1).getParameter().getOption().name()).isEqualTo('a');
+    }
+
     @Test
     public void allInvalidArguments() {
         // given
@@ -108,6 +170,89 @@ public class UtilArgsTest {
         // then
         assertThat(wrapper).isEqualTo(expected);
         assertThat(ua.getOperands()).isEqualTo(".");
+        assertThat(ua.getOperandList()).containsExactly("", ".");
+    }
+
+    @Test
+    public void shouldProcessCommandLine() {
+        // given
+        TestObject wrapper = new TestObject();
+        TestObject expected = new TestObject();
+        expected.name = "k s";
+        expected.flag = true;
+        expected.amount = new BigDecimal("1.5");
+
+        // when
+        UtilArgs ua = UtilArgs.process("-f -n \"k s\" -a 1.5 -- 'first operand' second", wrapper);
+
+        // then
+        assertThat(wrapper).isEqualTo(expected);
+        assertThat(ua.getWrapper()).isSameAs(wrapper);
+        assertThat(ua.getArguments()).isEqualTo(new String[]{"first operand", "second"});
+        assertThat(ua.getOperands()).isEqualTo("first operand second");
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldProcessNulSeparatedArguments() {
+        // given
+        TestObject wrapper = new TestObject();
+        TestObject expected = new TestObject();
+        expected.name = "k\u00f3 s";
+        expected.more = true;
+        byte[] arguments = "-m\0-n\0k\u00f3 s\0--\0-a\0".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        UtilArgs ua = UtilArgs.process(ByteBuffer.wrap(arguments), wrapper);
+
+        // then
+        assertThat(wrapper).isEqualTo(expected);
+        assertThat(ua.getArguments()).isEqualTo(new String[]{"-a"});
+        assertThat(ua.getOperands()).isEqualTo("-a");
+    }
+
+    @Test
+    public void shouldStreamOperandsFromInput() {
+        // given
+        TestObject wrapper = new TestObject();
+        byte[] input = "./a b\0./c\0".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        UtilArgs ua = new UtilArgs(new String[]{"-m", "first", "-", "last"}, wrapper);
+        List<String> operands = ua.getOperandStream(new ByteArrayInputStream(input), OperandReader.NUL).collect(Collectors.toList());
+
+        // then
+        assertThat(wrapper.more).isTrue();
+        assertThat(operands).containsExactly("first", "./a b", "./c", "last");
+    }
+
+    @Test
+    public void shouldBindTypedOperands() {
+        // given
+        OperandsObject wrapper = new OperandsObject();
+
+        // when
+        UtilArgs ua = UtilArgs.process("-v ./a.txt '/tmp/b c.txt'", wrapper);
+
+        // then
+        assertThat(wrapper.verbose).isTrue();
+        assertThat(wrapper.files).containsExactly(Paths.get("./a.txt"), Paths.get("/tmp/b c.txt"));
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldReportInvalidArrayOperand() {
+        // given
+        SizesObject wrapper = new SizesObject();
+
+        // when
+        UtilArgs ua = new UtilArgs(new String[]{"-v", "1", "2", "three"}, wrapper);
+
+        // then
+        assertThat(wrapper.verbose).isTrue();
+        assertThat(wrapper.sizes).isNull();
+        assertThat(ua.getBindingErrors()).hasSize(1);
+        assertThat(ua.getBindingErrors().get(0).getParameter().getArgument()).isEqualTo("three");
     }
 
     @Test
@@ -241,4 +386,34 @@ public class UtilArgsTest {
             return result;
         }
     }
+
+    private static final class PropertiesObject {
+
+        @Option(longName = "city")
+        String city;
+
+        @Option(longName = "random")
+        long random;
+
+        @Option(name = 'n', longName = "name")
+        String name;
+    }
+
+    private static final class OperandsObject {
+
+        @Option(name = 'v')
+        boolean verbose;
+
+        @Operands
+        List<Path> files;
+    }
+
+    private static final class SizesObject {
+
+        @Option(name = 'v')
+        boolean verbose;
+
+        @Operands
+        long[] sizes;
+    }
 }
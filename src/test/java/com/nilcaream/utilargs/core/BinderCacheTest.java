@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class BinderCacheTest {
+
+    private final CountingCache cache = new CountingCache();
+
+    @Test
+    public void shouldResolveOncePerList() throws Exception {
+        // given
+        List<ArgumentBinder> first = Arrays.<ArgumentBinder>asList(new PrimitiveBinder(), new StringConstructorBinder());
+        List<ArgumentBinder> second = Arrays.<ArgumentBinder>asList(new PrimitiveBinder());
+
+        // when
+        for (int index = 0; index < 10; index++) {
+            assertThat(cache.get(first)).isEqualTo(2);
+            assertThat(cache.get(second)).isEqualTo(1);
+        }
+
+        // then
+        assertThat(cache.resolutions).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldMatchListsOfSameBinders() throws Exception {
+        // given
+        List<ArgumentBinder> first = Arrays.<ArgumentBinder>asList(new PrimitiveBinder(), new StringConstructorBinder());
+
+        // when
+        cache.get(first);
+        cache.get(new ArrayList<>(first));
+
+        // then
+        assertThat(cache.resolutions).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldResolveModifiedList() throws Exception {
+        // given
+        List<ArgumentBinder> binders = new ArrayList<>();
+        binders.add(new PrimitiveBinder());
+        cache.get(binders);
+
+        // when
+        binders.add(new StringConstructorBinder());
+
+        // then
+        assertThat(cache.get(binders)).isEqualTo(2);
+        assertThat(cache.resolutions).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropOldestList() throws Exception {
+        // given
+        List<List<ArgumentBinder>> lists = new ArrayList<>();
+        for (int index = 0; index <= BinderCache.SIZE; index++) {
+            lists.add(Arrays.<ArgumentBinder>asList(new PrimitiveBinder()));
+            cache.get(lists.get(index));
+        }
+
+        // when
+        cache.get(lists.get(BinderCache.SIZE));
+        cache.get(lists.get(1));
+        cache.get(lists.get(0));
+
+        // then
+        assertThat(cache.resolutions).isEqualTo(BinderCache.SIZE + 2);
+    }
+
+    private static final class CountingCache extends BinderCache<Integer> {
+
+        private int resolutions;
+
+        @Override
+        protected Integer resolve(List<ArgumentBinder> binders) {
+            resolutions++;
+            return binders.size();
+        }
+    }
+}
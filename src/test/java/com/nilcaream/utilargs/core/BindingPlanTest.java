@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Option;
+import com.nilcaream.utilargs.model.Parameter;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class BindingPlanTest {
+
+    @Test
+    public void shouldCachePlanPerClass() throws Exception {
+        // when
+        BindingPlan first = BindingPlan.of(TestObject.class);
+        BindingPlan second = BindingPlan.of(TestObject.class);
+
+        // then
+        assertThat(first).isSameAs(second);
+        assertThat(first.getType()).isEqualTo(TestObject.class);
+    }
+
+    @Test
+    public void shouldResolveOptionKeys() throws Exception {
+        // when
+        BindingPlan plan = BindingPlan.of(TestObject.class);
+
+        // then
+        assertThat(plan.size()).isEqualTo(3);
+        assertThat(plan.getOptionNameToBinding()).hasSize(4);
+        assertThat(plan.get("-n")).isSameAs(plan.get("--name"));
+        assertThat(plan.get("-n").getField().getName()).isEqualTo("name");
+        assertThat(plan.get("-v").isFlag()).isTrue();
+        assertThat(plan.get("--count").isFlag()).isFalse();
+        assertThat(plan.get("-x")).isNull();
+        assertThat(plan.get("--none")).isNull();
+    }
+
+    @Test
+    public void shouldResolveShortAndLongOptions() throws Exception {
+        // when
+        BindingPlan plan = BindingPlan.of(TestObject.class);
+
+        // then
+        assertThat(plan.getShort('n')).isSameAs(plan.get("-n"));
+        assertThat(plan.getShort('x')).isNull();
+        assertThat(plan.getLong("--name", 2, false)).isSameAs(plan.get("-n"));
+        assertThat(plan.getLong("--na", 2, false)).isNull();
+        assertThat(plan.getLong("--na", 2, true)).isSameAs(plan.get("-n"));
+        assertThat(plan.getLong("--", 2, true)).isNull();
+        assertThat(plan.get("-")).isNull();
+        assertThat(plan.get("name")).isNull();
+    }
+
+    @Test
+    public void shouldResolveNonAsciiShortOptions() throws Exception {
+        // when
+        BindingPlan plan = BindingPlan.of(NonAsciiObject.class);
+
+        // then
+        assertThat(plan.getShort('\u00e9').getField().getName()).isEqualTo("accent");
+        assertThat(plan.get("-\u00e9")).isSameAs(plan.getShort('\u00e9'));
+        assertThat(plan.getShort('\u00e8')).isNull();
+    }
+
+    @Test
+    public void shouldOrderBindingsByOptionName() throws Exception {
+        // when
+        BindingPlan plan = BindingPlan.of(TestObject.class);
+
+        // then
+        assertThat(plan.getOrdered(0).getFieldName()).isEqualTo("count");
+        assertThat(plan.getOrdered(1).getFieldName()).isEqualTo("name");
+        assertThat(plan.getOrdered(2).getFieldName()).isEqualTo("verbose");
+    }
+
+    @Test
+    public void shouldCreateFreshParameters() throws Exception {
+        // given
+        BindingPlan plan = BindingPlan.of(TestObject.class);
+
+        // when
+        Parameter[] first = plan.createParameters();
+        Parameter[] second = plan.createParameters();
+
+        // then
+        assertThat(first).hasSize(3);
+        assertThat(first[0]).isNotSameAs(second[0]);
+        assertThat(first[0].getOption()).isSameAs(second[0].getOption());
+        assertThat(first[0].getArgument()).isNull();
+    }
+
+    @Test
+    public void shouldResolveEmptyPlan() throws Exception {
+        // when
+        BindingPlan plan = BindingPlan.of(Object.class);
+
+        // then
+        assertThat(plan.size()).isEqualTo(0);
+        assertThat(plan.getOptionNameToBinding()).isEmpty();
+    }
+
+    private static final class TestObject {
+        @Option(name = 'n', longName = "name")
+        String name;
+
+        @Option(name = 'v')
+        boolean verbose;
+
+        @Option(longName = "count")
+        Integer count;
+
+        Integer noOption;
+    }
+
+    private static final class NonAsciiObject {
+        @Option(name = '\u00e9')
+        String accent;
+    }
+}
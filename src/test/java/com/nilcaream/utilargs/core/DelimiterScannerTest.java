@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class DelimiterScannerTest {
+
+    @Test
+    public void shouldFindDelimiters() throws Exception {
+        // given
+        ByteBuffer buffer = ByteBuffer.wrap("key=value\r\nnext=\u0142\n".getBytes(StandardCharsets.UTF_8));
+
+        for (DelimiterScanner scanner : new DelimiterScanner[]{DelimiterScanner.getScalar(), DelimiterScanner.getDefault()}) {
+            // expect
+            assertThat(scanner.scan(buffer, 0, buffer.limit(), true)).isEqualTo(3);
+            assertThat(scanner.scan(buffer, 0, buffer.limit(), false)).isEqualTo(9);
+            assertThat(scanner.scan(buffer, 10, buffer.limit(), true)).isEqualTo(10);
+            assertThat(scanner.scan(buffer, 11, buffer.limit(), true)).isEqualTo(15);
+            assertThat(scanner.scan(buffer, 16, buffer.limit(), true)).isEqualTo(18);
+            assertThat(scanner.scan(buffer, 16, 17, true)).isEqualTo(17);
+        }
+    }
+
+    @Test
+    public void shouldFindTheSameDelimitersAsScalarScanner() throws Exception {
+        // given
+        Random random = new Random(13);
+        byte[] bytes = new byte[4096];
+        for (int index = 0; index < bytes.length; index++) {
+            int value = random.nextInt(200);
+            bytes[index] = value == 0 ? (byte) '\n' : value == 1 ? (byte) '\r' : value == 2 ? (byte) '=' : (byte) (value + 20);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        DelimiterScanner scalar = DelimiterScanner.getScalar();
+        DelimiterScanner scanner = DelimiterScanner.getDefault();
+
+        for (int from = 0; from < bytes.length; from += random.nextInt(7) + 1) {
+            int to = from + random.nextInt(bytes.length - from + 1);
+
+            // expect
+            assertThat(scanner.scan(buffer, from, to, true)).isEqualTo(scalar.scan(buffer, from, to, true));
+            assertThat(scanner.scan(buffer, from, to, false)).isEqualTo(scalar.scan(buffer, from, to, false));
+        }
+    }
+
+    @Test
+    public void shouldUseVectorScannerWhenAvailable() throws Exception {
+        // given
+        Assume.assumeTrue(System.getProperty("java.specification.version").matches("\\d{2,}"));
+        Assume.assumeTrue(getClass().getClassLoader().getResource("com/nilcaream/utilargs/core/VectorDelimiterScanner.class") != null);
+
+        // expect
+        assertThat(DelimiterScanner.getDefault().toString()).startsWith("VectorDelimiterScanner");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class ElementsTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void tearDown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void shouldParseLongArgumentInParallel() throws Exception {
+        // given
+        Elements elements = new Elements(TestObject.class.getDeclaredField("weights"));
+        StringBuilder argument = new StringBuilder();
+        double[] expected = new double[50000];
+        for (int index = 0; index < expected.length; index++) {
+            expected[index] = index * 0.25 - 100;
+            argument.append(index == 0 ? "" : ",").append(expected[index]);
+        }
+        List<String> arguments = Arrays.asList("1.5", argument.toString(), "2.5,3.5");
+
+        // when
+        double[] parallel = (double[]) elements.convert(arguments, true, null, POOL, 1000);
+        double[] sequential = (double[]) elements.convert(arguments, true, null);
+
+        // then
+        assertThat(parallel).hasSize(expected.length + 3);
+        assertThat(parallel[0]).isEqualTo(1.5);
+        assertThat(Arrays.copyOfRange(parallel, 1, expected.length + 1)).isEqualTo(expected);
+        assertThat(parallel[expected.length + 2]).isEqualTo(3.5);
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    @Test
+    public void shouldParseIntegersInParallel() throws Exception {
+        // given
+        Elements ints = new Elements(TestObject.class.getDeclaredField("ports"));
+        Elements longs = new Elements(TestObject.class.getDeclaredField("sizes"));
+        StringBuilder argument = new StringBuilder();
+        int[] expected = new int[30000];
+        for (int index = 0; index < expected.length; index++) {
+            expected[index] = index * 7 - 1000;
+            argument.append(index == 0 ? "" : ",").append(expected[index]);
+        }
+        List<String> arguments = Collections.singletonList(argument.toString());
+
+        // when
+        int[] parsedInts = (int[]) ints.convert(arguments, true, null, POOL, 0);
+        long[] parsedLongs = (long[]) longs.convert(arguments, true, null, POOL, 0);
+
+        // then
+        assertThat(parsedInts).isEqualTo(expected);
+        assertThat(parsedLongs[expected.length - 1]).isEqualTo(expected[expected.length - 1]);
+    }
+
+    @Test
+    public void shouldReportInvalidElementOfLowestIndex() throws Exception {
+        // given
+        Elements elements = new Elements(TestObject.class.getDeclaredField("ports"));
+        String[] values = new String[30000];
+        Arrays.fill(values, "12345");
+        values[20000] = "x";
+        values[29999] = "y";
+        values[10000] = "";
+
+        // when
+        try {
+            elements.convert(Collections.singletonList(String.join(",", values)), true, null, POOL, 0);
+            fail("Exception expected");
+        } catch (Elements.InvalidElementException e) {
+            // then
+            assertThat(e.getIndex()).isEqualTo(10000);
+            assertThat(e.getValue()).isEqualTo("");
+            assertThat(e.getCause()).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Test
+    public void shouldParseShortArgumentsOnCallingThread() throws Exception {
+        // given
+        Elements elements = new Elements(TestObject.class.getDeclaredField("weights"));
+
+        // when
+        double[] values = (double[]) elements.convert(Arrays.asList("0.5,1", "2"), true, null, POOL, 1000);
+
+        // then
+        assertThat(values).isEqualTo(new double[]{0.5, 1, 2});
+    }
+
+    @Test
+    public void shouldKeepArgumentsWithoutFiles() throws Exception {
+        // given
+        List<String> arguments = Arrays.asList("1,2", "3");
+
+        // expect
+        assertThat(Elements.readFiles(arguments)).isSameAs(arguments);
+    }
+
+    private static class TestObject {
+        double[] weights;
+        int[] ports;
+        long[] sizes;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Option;
+import com.nilcaream.utilargs.model.Parameter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+
+public class FlagBinderTest extends AbstractBinderTest {
+
+    @Before
+    public void setUp() {
+        binder = new FlagBinder();
+    }
+
+    @Test
+    public void bindBooleanFlags() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+
+        // when
+        binder.bind(createFlag(testObject, "primitiveFlag", 2), testObject);
+        binder.bind(createFlag(testObject, "wrapperFlag", 1), testObject);
+
+        // then
+        assertThat(testObject.primitiveFlag).isTrue();
+        assertThat(testObject.wrapperFlag).isTrue();
+    }
+
+    @Test
+    public void bindCountedFlags() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+
+        // when
+        binder.bind(createFlag(testObject, "intCount", 3), testObject);
+        binder.bind(createFlag(testObject, "longCount", 4), testObject);
+        binder.bind(createFlag(testObject, "integerCount", 5), testObject);
+        binder.bind(createFlag(testObject, "byteCount", 6), testObject);
+
+        // then
+        assertThat(testObject.intCount).isEqualTo(3);
+        assertThat(testObject.longCount).isEqualTo(4L);
+        assertThat(testObject.integerCount).isEqualTo(5);
+        assertThat(testObject.byteCount).isEqualTo((byte) 6);
+    }
+
+    @Test
+    public void failOnCountedFlagOutOfRange() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        Parameter parameter = createFlag(testObject, "byteCount", 128);
+
+        try {
+            // when
+            binder.bind(parameter, testObject);
+            fail("Expected binding exception");
+        } catch (BindingException e) {
+            // then
+            assertThat(e.getParameter()).isSameAs(parameter);
+            assertThat(testObject.byteCount).isEqualTo((byte) 0);
+        }
+    }
+
+    @Test
+    public void failOnNotBooleanFlag() throws Exception {
+        // given
+        TestObject testObject = new TestObject();
+        Parameter parameter = createFlag(testObject, "notCounted", 1);
+
+        try {
+            // when
+            binder.bind(parameter, testObject);
+            fail("Expected binding exception");
+        } catch (BindingException e) {
+            // then
+            assertThat(e.getParameter()).isSameAs(parameter);
+        }
+    }
+
+    @Test
+    public void supportBooleanAndIntegralTypes() throws Exception {
+        // expect
+        assertThat(binder.supports(boolean.class)).isTrue();
+        assertThat(binder.supports(Integer.class)).isTrue();
+        assertThat(binder.supports(short.class)).isTrue();
+        assertThat(binder.supports(double.class)).isFalse();
+        assertThat(binder.supports(String.class)).isFalse();
+    }
+
+    private Parameter createFlag(Object wrapper, String fieldName, int occurrences) throws NoSuchFieldException {
+        Parameter parameter = createFrom(wrapper, fieldName, "true");
+        parameter.setOption(parameter.getField().getAnnotation(Option.class));
+        parameter.setOccurrences(occurrences);
+        return parameter;
+    }
+
+    private static final class TestObject {
+        @Option(name = 'a')
+        boolean primitiveFlag;
+
+        @Option(name = 'b')
+        Boolean wrapperFlag;
+
+        @Option(name = 'c', counted = true)
+        int intCount;
+
+        @Option(name = 'd', counted = true)
+        long longCount;
+
+        @Option(name = 'e', counted = true)
+        Integer integerCount;
+
+        @Option(name = 'f', counted = true)
+        byte byteCount;
+
+        @Option(name = 'g')
+        int notCounted;
+    }
+}
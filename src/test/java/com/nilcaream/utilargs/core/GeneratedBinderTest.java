@@ -0,0 +1,210 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.ArgumentProcessor;
+import com.nilcaream.utilargs.UtilArgs;
+import com.nilcaream.utilargs.model.Operands;
+import com.nilcaream.utilargs.model.Option;
+import com.nilcaream.utilargs.model.Parameter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class GeneratedBinderTest {
+
+    static boolean unrelatedInitialized;
+
+    @Test
+    public void shouldResolveBinderName() throws Exception {
+        assertThat(GeneratedBinder.getBinderName("com.example.Wrapper")).isEqualTo("com.example.WrapperArgs");
+        assertThat(GeneratedBinder.getBinderName("com.example.Outer$Inner")).isEqualTo("com.example.Outer_InnerArgs");
+        assertThat(GeneratedBinder.getBinderName("Wrapper")).isEqualTo("WrapperArgs");
+    }
+
+    @Test
+    public void shouldBuildPlanFromGeneratedBinder() throws Exception {
+        // when
+        BindingPlan plan = BindingPlan.of(Wrapper.class);
+
+        // then
+        assertThat(plan.getGeneratedBinder()).isInstanceOf(GeneratedBinderTest_WrapperArgs.class);
+        assertThat(plan.size()).isEqualTo(3);
+        assertThat(plan.get("--name").getFieldName()).isEqualTo("name");
+        assertThat(plan.get("-c").getType()).isEqualTo(int.class);
+        assertThat(plan.get("-v").isFlag()).isTrue();
+        assertThat(plan.get("-n").getOption()).isEqualTo(Wrapper.class.getDeclaredField("name").getAnnotation(Option.class));
+        assertThat(plan.get("-n").getField()).isEqualTo(Wrapper.class.getDeclaredField("name"));
+        assertThat(plan.getOperandsBinding().getField()).isEqualTo(Wrapper.class.getDeclaredField("files"));
+    }
+
+    @Test
+    public void shouldNotFindMissingBinder() throws Exception {
+        assertThat(BindingPlan.of(NotGenerated.class).getGeneratedBinder()).isNull();
+        assertThat(BindingPlan.of(String.class).getGeneratedBinder()).isNull();
+    }
+
+    @Test
+    public void shouldNotInitializeUnrelatedClassOfBinderName() throws Exception {
+        // when
+        BindingPlan plan = BindingPlan.of(Unrelated.class);
+
+        // then
+        assertThat(plan.getGeneratedBinder()).isNull();
+        assertThat(plan.size()).isEqualTo(1);
+        assertThat(unrelatedInitialized).isFalse();
+    }
+
+    @Test
+    public void shouldBindWithGeneratedBinder() throws Exception {
+        // given
+        Wrapper wrapper = new Wrapper();
+
+        // when
+        UtilArgs ua = UtilArgs.process("-n name -c 12 -v operand".split(" "), wrapper);
+
+        // then
+        assertThat(wrapper.name).isEqualTo("name");
+        assertThat(wrapper.count).isEqualTo(12);
+        assertThat(wrapper.verbose).isTrue();
+        assertThat(wrapper.generatedBindings).isEqualTo(3);
+        assertThat(ua.getOperands()).isEqualTo("operand");
+        assertThat((Object) wrapper.files).isEqualTo(Arrays.asList("operand"));
+    }
+
+    @Test
+    public void shouldResolveFieldsOfGeneratedParameters() throws Exception {
+        // given
+        ArgumentProcessor processor = new ArgumentProcessor();
+
+        // when
+        processor.initialize("-n name".split(" "), new Wrapper());
+
+        // then
+        assertThat(processor.getParameters().get(0).getField()).isEqualTo(Wrapper.class.getDeclaredField("name"));
+        for (Parameter parameter : processor.getDeclaredParameters()) {
+            assertThat(parameter.getField()).isNotNull();
+        }
+        assertThat(processor.getDeclaredParameters().get(0).getField()).isEqualTo(Wrapper.class.getDeclaredField("count"));
+    }
+
+    @Test
+    public void shouldBindWithGeneratedBinderWithoutReflection() throws Exception {
+        // given
+        Unreflected wrapper = new Unreflected();
+        ArgumentProcessor processor = new ArgumentProcessor();
+        processor.setGeneratedBinders(true);
+
+        // when
+        processor.initialize("-n name -v".split(" "), wrapper);
+
+        // then
+        assertThat(wrapper.name).isEqualTo("name");
+        assertThat(wrapper.verbose).isTrue();
+        assertThat(processor.getBindingErrors()).isEmpty();
+        assertThat(processor.getParameters()).hasSize(2);
+        assertThat(processor.getParameters().get(0).getArgument()).isEqualTo("name");
+        assertThat(processor.getParameters().get(0).getField()).isNull();
+        assertThat(processor.getDeclaredParameters()).hasSize(2);
+    }
+
+    @Test
+    public void shouldReportUnresolvedFieldOfReflectiveBinding() throws Exception {
+        // given
+        Unreflected wrapper = new Unreflected();
+        ArgumentProcessor processor = new ArgumentProcessor();
+        processor.setBinders(new ArrayList<>());
+        processor.getBinders().add(new StringConstructorBinder());
+
+        // when
+        processor.initialize("-n name".split(" "), wrapper);
+
+        // then
+        assertThat(wrapper.name).isNull();
+        assertThat(processor.getBindingErrors()).hasSize(1);
+        assertThat(processor.getBindingErrors().get(0).getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldReportGeneratedBindingErrors() throws Exception {
+        // given
+        Wrapper wrapper = new Wrapper();
+
+        // when
+        UtilArgs ua = UtilArgs.process("-c x".split(" "), wrapper);
+
+        // then
+        assertThat(wrapper.count).isEqualTo(0);
+        assertThat(ua.getBindingErrors()).hasSize(1);
+        assertThat(ua.getBindingErrors().get(0).getCause()).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    public void shouldBindWithBindersWhenGeneratedBindersAreDisabled() throws Exception {
+        // given
+        Wrapper wrapper = new Wrapper();
+        ArgumentProcessor processor = new ArgumentProcessor();
+        processor.setBinders(new ArrayList<>());
+        processor.getBinders().add(new StringConstructorBinder());
+
+        // when
+        processor.initialize("-n name".split(" "), wrapper);
+
+        // then
+        assertThat(wrapper.name).isEqualTo("name");
+        assertThat(wrapper.generatedBindings).isEqualTo(0);
+        assertThat(processor.getParameters().get(0).getField().getName()).isEqualTo("name");
+    }
+
+    static final class Wrapper {
+        @Option(name = 'n', longName = "name")
+        String name;
+
+        @Option(name = 'c')
+        int count;
+
+        @Option(name = 'v')
+        boolean verbose;
+
+        @Operands
+        List<String> files;
+
+        int generatedBindings;
+    }
+
+    static final class Unreflected {
+        @Option(name = 'n', longName = "name")
+        String name;
+
+        @Option(name = 'v')
+        boolean verbose;
+    }
+
+    static final class Unrelated {
+        @Option(name = 'n')
+        String name;
+    }
+
+    static final class NotGenerated {
+        @Option(name = 'n')
+        String name;
+    }
+}
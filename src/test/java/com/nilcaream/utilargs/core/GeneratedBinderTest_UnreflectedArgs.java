@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Option;
+
+/**
+ * Hand-written binder of {@link GeneratedBinderTest.Unreflected} declaring a field name that can not be found with
+ * reflection, as when reflection is not available at runtime.
+ */
+public final class GeneratedBinderTest_UnreflectedArgs extends GeneratedBinder {
+
+    public GeneratedBinderTest_UnreflectedArgs() {
+        super(GeneratedBinderTest.Unreflected.class,
+                new Option[]{option('n', "name"), option('v', "")},
+                new String[]{"unreflectedName", "unreflectedVerbose"},
+                new Class<?>[]{String.class, boolean.class});
+    }
+
+    @Override
+    public void bind(Object wrapper, int index, String argument) throws Exception {
+        GeneratedBinderTest.Unreflected target = (GeneratedBinderTest.Unreflected) wrapper;
+        switch (index) {
+            case 0:
+                target.name = argument;
+                break;
+            case 1:
+                target.verbose = Boolean.parseBoolean(argument);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option index " + index);
+        }
+    }
+
+    @Override
+    public String getOperandsFieldName() {
+        return null;
+    }
+}
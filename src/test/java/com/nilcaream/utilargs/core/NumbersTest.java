@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class NumbersTest {
+
+    private static final String[] INTEGERS = {
+            "0", "-0", "+0", "7", "-7", "+7", "0012", "2147483647", "-2147483648", "2147483648", "-2147483649",
+            "9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809",
+            "", "-", "+", "1e1", "2a", " 1", "1 ", "--1", "+-1", "1.0", "\u0661\u0662"
+    };
+
+    private static final String[] DOUBLES = {
+            "0", "-0", "+0", "0.0", "-0.0", "1", "1.", ".5", "-.5", "2.345e2", "2.345E-2", "1e22", "1e23", "1e-22",
+            "1e-23", "123456789012345", "1234567890123456", "0.000000000000000000001", "0.1", "0.2", "0.3",
+            "3.141592653589793", "-23.4567890123", "1e0005", "1e308", "1e309", "4.9e-324", "NaN", "-Infinity",
+            "0x1p3", "1d", "1f", " 1", "1 ", "", ".", "-", "e1", "1e", "1e+", "1.2.3", "1..2", "abc"
+    };
+
+    @Test
+    public void shouldParseIntegersLikeJdk() throws Exception {
+        for (String input : INTEGERS) {
+            assertSameInt(input);
+            assertSameLong(input);
+        }
+    }
+
+    @Test
+    public void shouldParseShortsAndBytesLikeJdk() throws Exception {
+        for (String input : new String[]{"0", "-1", "127", "128", "-128", "-129", "255", "32767", "32768", "-32768",
+                "-32769", "65536", "", "-", "1x"}) {
+            assertSameShort(input);
+            assertSameByte(input);
+        }
+    }
+
+    @Test
+    public void shouldParseDoublesLikeJdk() throws Exception {
+        for (String input : DOUBLES) {
+            assertSameDouble(input);
+        }
+    }
+
+    @Test
+    public void shouldParseRandomDoublesLikeJdk() throws Exception {
+        Random random = new Random(17);
+        for (int i = 0; i < 100000; i++) {
+            long mantissa = random.nextLong() % 1000000000000000L;
+            int scale = random.nextInt(30) - 15;
+            assertSameDouble(new java.math.BigDecimal(java.math.BigInteger.valueOf(mantissa), scale).toString());
+            assertSameDouble(mantissa + "e" + (random.nextInt(50) - 25));
+        }
+    }
+
+    @Test
+    public void shouldParseRange() throws Exception {
+        assertThat(Numbers.parseInt("x-123y", 1, 5)).isEqualTo(-123);
+        assertThat(Numbers.parseLong("1,22,333", 2, 4)).isEqualTo(22L);
+        assertThat(Numbers.parseDouble("[1.5]", 1, 4)).isEqualTo(1.5);
+        assertThat(Numbers.parseDouble("[1.5e400]", 1, 8)).isEqualTo(Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void shouldNotFillStackTrace() throws Exception {
+        try {
+            Numbers.parseInt("12a");
+            fail();
+        } catch (NumberFormatException e) {
+            assertThat(e.getStackTrace()).isEmpty();
+            assertThat(e.getMessage()).isEqualTo("For input string: \"12a\"");
+        }
+    }
+
+    @Test
+    public void shouldNotFillStackTraceOfInvalidDouble() throws Exception {
+        for (String input : new String[]{"", " ", "-", "abc", "1,5", "12x", "0.5 kg"}) {
+            try {
+                Numbers.parseDouble(input);
+                fail(input);
+            } catch (NumberFormatException e) {
+                assertThat(e.getStackTrace()).as(input).isEmpty();
+            }
+        }
+    }
+
+    private void assertSameInt(String input) {
+        Object expected;
+        Object actual;
+        try {
+            expected = Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            expected = "invalid";
+        }
+        try {
+            actual = Numbers.parseInt(input);
+        } catch (NumberFormatException e) {
+            actual = "invalid";
+        }
+        assertThat(actual).as(input).isEqualTo(expected);
+    }
+
+    private void assertSameShort(String input) {
+        Object expected;
+        Object actual;
+        try {
+            expected = Short.parseShort(input);
+        } catch (NumberFormatException e) {
+            expected = "invalid";
+        }
+        try {
+            actual = Numbers.parseShort(input);
+        } catch (NumberFormatException e) {
+            actual = "invalid";
+        }
+        assertThat(actual).as(input).isEqualTo(expected);
+    }
+
+    private void assertSameByte(String input) {
+        Object expected;
+        Object actual;
+        try {
+            expected = Byte.parseByte(input);
+        } catch (NumberFormatException e) {
+            expected = "invalid";
+        }
+        try {
+            actual = Numbers.parseByte(input);
+        } catch (NumberFormatException e) {
+            actual = "invalid";
+        }
+        assertThat(actual).as(input).isEqualTo(expected);
+    }
+
+    private void assertSameLong(String input) {
+        Object expected;
+        Object actual;
+        try {
+            expected = Long.parseLong(input);
+        } catch (NumberFormatException e) {
+            expected = "invalid";
+        }
+        try {
+            actual = Numbers.parseLong(input);
+        } catch (NumberFormatException e) {
+            actual = "invalid";
+        }
+        assertThat(actual).as(input).isEqualTo(expected);
+    }
+
+    private void assertSameDouble(String input) {
+        Object expected;
+        Object actual;
+        try {
+            expected = Double.doubleToRawLongBits(Double.parseDouble(input));
+        } catch (NumberFormatException e) {
+            expected = "invalid";
+        }
+        try {
+            actual = Double.doubleToRawLongBits(Numbers.parseDouble(input));
+        } catch (NumberFormatException e) {
+            actual = "invalid";
+        }
+        assertThat(actual).as(input).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Operands;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class OperandsBindingTest {
+
+    private static final List<ArgumentBinder> BINDERS = Arrays.asList(
+            new PrimitiveBinder(), new StaticValueOfBinder(), new StringConstructorBinder());
+
+    @Test
+    public void shouldResolveElementTypes() throws Exception {
+        // expect
+        assertThat(BindingPlan.of(PathList.class).getOperandsBinding().getElementType()).isEqualTo(Path.class);
+        assertThat(BindingPlan.of(IntArray.class).getOperandsBinding().getElementType()).isEqualTo(int.class);
+        assertThat(BindingPlan.of(RawCollection.class).getOperandsBinding().getElementType()).isEqualTo(String.class);
+        assertThat(BindingPlan.of(WildcardIterable.class).getOperandsBinding().getElementType()).isEqualTo(Long.class);
+        assertThat(BindingPlan.of(Unsupported.class).getOperandsBinding().getField().getName()).isEqualTo("operands");
+        assertThat(BindingPlan.of(Object.class).getOperandsBinding()).isNull();
+    }
+
+    @Test
+    public void shouldBindListOfPaths() throws Exception {
+        // given
+        PathList wrapper = new PathList();
+
+        // when
+        bind(wrapper, "/tmp/a.txt", "b c.txt");
+
+        // then
+        assertThat(wrapper.operands).containsExactly(Paths.get("/tmp/a.txt"), Paths.get("b c.txt"));
+    }
+
+    @Test
+    public void shouldConvertListElementsOnFirstAccessOnly() throws Exception {
+        // given
+        AtomicInteger conversions = new AtomicInteger();
+        ArgumentBinder binder = new StaticValueOfBinder() {
+            @Override
+            public Converter getConverter(Class<?> type) {
+                return argument -> {
+                    conversions.incrementAndGet();
+                    return Integer.valueOf(argument);
+                };
+            }
+        };
+        IntegerList wrapper = new IntegerList();
+        BindingPlan.of(IntegerList.class).getOperandsBinding().bind(wrapper, Arrays.asList("1", "2", "x", "4"),
+                Collections.singletonList(binder));
+
+        // when
+        Integer first = wrapper.operands.get(0);
+        Integer firstAgain = wrapper.operands.get(0);
+        Integer last = wrapper.operands.get(3);
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(firstAgain).isSameAs(first);
+        assertThat(last).isEqualTo(4);
+        assertThat(wrapper.operands).hasSize(4);
+        assertThat(conversions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldReadListConcurrently() throws Exception {
+        // given
+        int size = ConvertingList.CHUNK_SIZE * 3 + 1;
+        String[] operands = new String[size];
+        for (int index = 0; index < size; index++) {
+            operands[index] = "file" + index;
+        }
+        PathList wrapper = new PathList();
+        bind(wrapper, operands);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Path[]>> futures = new ArrayList<>();
+
+        // when
+        for (int thread = 0; thread < threads; thread++) {
+            final int offset = thread * size / threads;
+            futures.add(executor.submit(() -> {
+                start.await();
+                Path[] values = new Path[size];
+                for (int index = 0; index < size; index++) {
+                    int position = (index + offset) % size;
+                    values[position] = wrapper.operands.get(position);
+                }
+                return values;
+            }));
+        }
+        start.countDown();
+        List<Path[]> results = new ArrayList<>();
+        for (Future<Path[]> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // then
+        for (int index = 0; index < size; index++) {
+            assertThat((Object) results.get(0)[index]).isEqualTo(Paths.get("file" + index));
+            for (Path[] result : results) {
+                assertThat((Object) result[index]).isSameAs(results.get(0)[index]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFailOnAccessOfInvalidListElement() throws Exception {
+        // given
+        IntegerList wrapper = new IntegerList();
+        bind(wrapper, "1", "x");
+
+        // when
+        try {
+            wrapper.operands.get(1);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // then
+            assertThat(e.getMessage()).isEqualTo("Invalid operand 1 of field operands");
+            assertThat(e.getCause()).isInstanceOf(NumberFormatException.class);
+        }
+        assertThat(wrapper.operands.get(0)).isEqualTo(1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldBindReadOnlyList() throws Exception {
+        // given
+        IntegerList wrapper = new IntegerList();
+        bind(wrapper, "1");
+
+        // when
+        wrapper.operands.set(0, 2);
+    }
+
+    @Test
+    public void shouldBindStringsWithoutConversion() throws Exception {
+        // given
+        RawCollection wrapper = new RawCollection();
+        List<String> operands = Arrays.asList("a", "b");
+
+        // when
+        BindingPlan.of(RawCollection.class).getOperandsBinding().bind(wrapper, operands, BINDERS);
+
+        // then
+        assertThat(wrapper.operands).isSameAs(operands);
+    }
+
+    @Test
+    public void shouldBindPrimitiveArrays() throws Exception {
+        // given
+        IntArray ints = new IntArray();
+        LongArray longs = new LongArray();
+        DoubleArray doubles = new DoubleArray();
+
+        // when
+        bind(ints, "1", "-2", "300");
+        bind(longs, "10000000000", "-1");
+        bind(doubles, "0.5", "-1e3");
+
+        // then
+        assertThat(ints.operands).isEqualTo(new int[]{1, -2, 300});
+        assertThat(longs.operands).isEqualTo(new long[]{10000000000L, -1});
+        assertThat(doubles.operands).isEqualTo(new double[]{0.5, -1000});
+    }
+
+    @Test
+    public void shouldBindObjectAndOtherPrimitiveArrays() throws Exception {
+        // given
+        PathArray paths = new PathArray();
+        ShortArray shorts = new ShortArray();
+
+        // when
+        bind(paths, "a", "b");
+        bind(shorts, "1", "-2");
+
+        // then
+        assertThat(paths.operands).isEqualTo(new Path[]{Paths.get("a"), Paths.get("b")});
+        assertThat(shorts.operands).isEqualTo(new short[]{1, -2});
+    }
+
+    @Test
+    public void shouldBindEmptyOperands() throws Exception {
+        // given
+        IntArray ints = new IntArray();
+        PathList paths = new PathList();
+
+        // when
+        bind(ints);
+        bind(paths);
+
+        // then
+        assertThat(ints.operands).isEmpty();
+        assertThat(paths.operands).isEmpty();
+    }
+
+    @Test
+    public void shouldReportInvalidArrayElement() throws Exception {
+        // given
+        IntArray wrapper = new IntArray();
+
+        // when
+        try {
+            bind(wrapper, "1", "2.5");
+            fail("Exception expected");
+        } catch (BindingException e) {
+            // then
+            assertThat(e.getMessage()).isEqualTo("Invalid operand 1 of field operands");
+            assertThat(e.getParameter().getArgument()).isEqualTo("2.5");
+            assertThat(e.getParameter().getField().getName()).isEqualTo("operands");
+        }
+        assertThat(wrapper.operands).isNull();
+    }
+
+    @Test(expected = BindingException.class)
+    public void shouldReportUnsupportedFieldType() throws Exception {
+        bind(new Unsupported(), "a");
+    }
+
+    @Test(expected = BindingException.class)
+    public void shouldReportUnsupportedElementType() throws Exception {
+        bind(new NumberList(), "1");
+    }
+
+    private static void bind(Object wrapper, String... operands) {
+        BindingPlan.of(wrapper.getClass()).getOperandsBinding().bind(wrapper, Arrays.asList(operands), BINDERS);
+    }
+
+    private static class PathList {
+        @Operands
+        private List<Path> operands;
+    }
+
+    private static class IntegerList {
+        @Operands
+        private List<Integer> operands;
+    }
+
+    private static class NumberList {
+        @Operands
+        private List<Number> operands;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class RawCollection {
+        @Operands
+        private Collection operands;
+    }
+
+    private static class WildcardIterable {
+        @Operands
+        private Iterable<? extends Long> operands;
+    }
+
+    private static class IntArray {
+        @Operands
+        private int[] operands;
+    }
+
+    private static class LongArray {
+        @Operands
+        private long[] operands;
+    }
+
+    private static class DoubleArray {
+        @Operands
+        private double[] operands;
+    }
+
+    private static class ShortArray {
+        @Operands
+        private short[] operands;
+    }
+
+    private static class PathArray {
+        @Operands
+        private Path[] operands;
+    }
+
+    private static class Unsupported {
+        @Operands
+        private String operands;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class OptionTrieTest {
+
+    private OptionTrie trie;
+    private OptionBinding verbose;
+    private OptionBinding version;
+    private OptionBinding ver;
+    private OptionBinding name;
+
+    @Before
+    public void setUp() {
+        verbose = binding(0, "verbose");
+        version = binding(1, "version");
+        ver = binding(2, "ver");
+        name = binding(3, "name");
+
+        trie = new OptionTrie();
+        trie.add("verbose", verbose);
+        trie.add("version", version);
+        trie.add("ver", ver);
+        trie.add("name", name);
+    }
+
+    @Test
+    public void shouldFindExactNames() throws Exception {
+        // expect
+        assertThat(trie.find("--verbose", 2, false)).isSameAs(verbose);
+        assertThat(trie.find("--version", 2, false)).isSameAs(version);
+        assertThat(trie.find("--ver", 2, false)).isSameAs(ver);
+        assertThat(trie.find("name", 0, false)).isSameAs(name);
+    }
+
+    @Test
+    public void shouldNotFindPrefixesWithoutAbbreviation() throws Exception {
+        // expect
+        assertThat(trie.find("--verb", 2, false)).isNull();
+        assertThat(trie.find("--n", 2, false)).isNull();
+        assertThat(trie.find("--names", 2, false)).isNull();
+        assertThat(trie.find("--", 2, false)).isNull();
+    }
+
+    @Test
+    public void shouldFindUniquePrefixes() throws Exception {
+        // expect
+        assertThat(trie.find("--verb", 2, true)).isSameAs(verbose);
+        assertThat(trie.find("--versi", 2, true)).isSameAs(version);
+        assertThat(trie.find("--n", 2, true)).isSameAs(name);
+    }
+
+    @Test
+    public void shouldPreferExactMatchOverPrefix() throws Exception {
+        // expect
+        assertThat(trie.find("--ver", 2, true)).isSameAs(ver);
+    }
+
+    @Test
+    public void shouldNotFindAmbiguousPrefixes() throws Exception {
+        // expect
+        assertThat(trie.find("--ve", 2, true)).isNull();
+        assertThat(trie.find("--v", 2, true)).isNull();
+        assertThat(trie.find("--", 2, true)).isNull();
+        assertThat(trie.find("--x", 2, true)).isNull();
+    }
+
+    private static OptionBinding binding(int index, String fieldName) {
+        return new OptionBinding(index, null, OptionTrieTest.class, fieldName, String.class);
+    }
+}
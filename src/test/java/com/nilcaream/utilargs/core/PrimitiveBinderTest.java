@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.core;
+
+import com.nilcaream.utilargs.model.Parameter;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class PrimitiveBinderTest extends AbstractBinderTest {
+
+    @Before
+    public void setUp() {
+        binder = new PrimitiveBinder();
+    }
+
+    @Test
+    public void bindInteger() throws Exception {
+        doAssert(new TestObject(), "integerValue", "-234", -234);
+    }
+
+    @Test
+    public void bindLong() throws Exception {
+        doAssert(new TestObject(), "longValue", "234567890123", 234567890123L);
+    }
+
+    @Test
+    public void bindShort() throws Exception {
+        doAssert(new TestObject(), "shortValue", "-123", (short) -123);
+    }
+
+    @Test
+    public void bindByte() throws Exception {
+        doAssert(new TestObject(), "byteValue", "101", (byte) 101);
+    }
+
+    @Test
+    public strictfp void bindDouble() throws Exception {
+        doAssert(new TestObject(), "doubleValue", "-23.4567890123", -23.4567890123);
+    }
+
+    @Test
+    public void bindBoolean() throws Exception {
+        doAssert(new TestObject(), "booleanValue", "TRUE", true);
+        doAssert(new TestObject(), "booleanValue", "anything", false);
+    }
+
+    @Test
+    public void bindCharacter() throws Exception {
+        doAssert(new TestObject(), "characterValue", "ś", 'ś');
+    }
+
+    @Test
+    public void bindBoxedTypes() throws Exception {
+        doAssert(new TestObject(), "boxedInteger", "-234", -234);
+        doAssert(new TestObject(), "boxedLong", "234567890123", 234567890123L);
+        doAssert(new TestObject(), "boxedShort", "-123", (short) -123);
+        doAssert(new TestObject(), "boxedByte", "101", (byte) 101);
+        doAssert(new TestObject(), "boxedDouble", "-2.5", -2.5);
+        doAssert(new TestObject(), "boxedCharacter", "ś", 'ś');
+    }
+
+    @Test
+    public void shouldReportInvalidBoxedIntegerWithoutStackTrace() throws Exception {
+        // given
+        TestObject wrapper = new TestObject();
+        Parameter parameter = createFrom(wrapper, "boxedInteger", "2a");
+
+        try {
+            // when
+            binder.bind(parameter, wrapper);
+            fail("BindingException expected");
+        } catch (BindingException e) {
+            // then
+            assertThat(e.getCause()).isNotNull();
+            assertThat(e.getCause().getStackTrace()).isEmpty();
+            assertThat(wrapper.boxedInteger).isNull();
+        }
+    }
+
+    @Test(expected = BindingException.class)
+    public void emptyBoxedCharacter() throws Exception {
+        doAssert(new TestObject(), "boxedCharacter", "", null);
+    }
+
+    @Test(expected = BindingException.class)
+    public void invalidInteger() throws Exception {
+        doAssert(new TestObject(), "integerValue", "2a", null);
+    }
+
+    @Test(expected = BindingException.class)
+    public void shortOutOfRange() throws Exception {
+        doAssert(new TestObject(), "shortValue", "32768", null);
+    }
+
+    @Test(expected = BindingException.class)
+    public void emptyCharacter() throws Exception {
+        doAssert(new TestObject(), "characterValue", "", null);
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void unsupportedType() throws Exception {
+        doAssert(new TestObject(), "floatValue", "1", null);
+    }
+
+    @Test
+    public void shouldProbeSupportedTypes() throws Exception {
+        assertThat(binder.supports(int.class)).isTrue();
+        assertThat(binder.supports(char.class)).isTrue();
+        assertThat(binder.supports(Integer.class)).isTrue();
+        assertThat(binder.supports(Character.class)).isTrue();
+        assertThat(binder.supports(float.class)).isFalse();
+        assertThat(binder.supports(Float.class)).isFalse();
+        assertThat(binder.getConverter(double.class).convert("1.5")).isEqualTo(1.5);
+        assertThat(binder.getConverter(Short.class).convert("-7")).isEqualTo((short) -7);
+    }
+
+    @Test
+    public void shouldNotAllocateWhenBinding() throws Exception {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        // given
+        TestObject wrapper = new TestObject();
+        Parameter[] parameters = {
+                createFrom(wrapper, "integerValue", "-2147483648"),
+                createFrom(wrapper, "longValue", "234567890123"),
+                createFrom(wrapper, "doubleValue", "-23.45678e-3"),
+                createFrom(wrapper, "booleanValue", "true"),
+                createFrom(wrapper, "characterValue", "c"),
+        };
+        long threadId = Thread.currentThread().getId();
+        int count = 100000;
+        bindAll(parameters, wrapper, count);
+
+        // when
+        long before = threads.getThreadAllocatedBytes(threadId);
+        bindAll(parameters, wrapper, count);
+        long after = threads.getThreadAllocatedBytes(threadId);
+
+        // then
+        assertThat((after - before) / (count * parameters.length)).isEqualTo(0L);
+        assertThat(wrapper.integerValue).isEqualTo(Integer.MIN_VALUE);
+        assertThat(wrapper.doubleValue).isEqualTo(-0.02345678);
+        assertThat(wrapper.characterValue).isEqualTo('c');
+    }
+
+    private void bindAll(Parameter[] parameters, Object wrapper, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            for (Parameter parameter : parameters) {
+                binder.bind(parameter, wrapper);
+            }
+        }
+    }
+
+    private static class TestObject {
+        int integerValue;
+        short shortValue;
+        byte byteValue;
+        char characterValue;
+        long longValue;
+        float floatValue;
+        double doubleValue;
+        boolean booleanValue;
+        Integer boxedInteger;
+        Long boxedLong;
+        Short boxedShort;
+        Byte boxedByte;
+        Double boxedDouble;
+        Character boxedCharacter;
+    }
+}
@@ -20,6 +20,8 @@ import com.nilcaream.utilargs.model.Option;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.fest.assertions.Assertions.assertThat;
+
 /**
  * TODO
  * <p/>
@@ -37,6 +39,33 @@ public class StandardStaticValueOfBinderTest extends AbstractBinderTest {
         doAssert(ValidObject.instance, "field", "test", ValidObject.instance);
     }
 
+    @Test
+    public void bindEnum() throws Exception {
+        doAssert(new EnumObject(), "field", "SECOND", TestEnum.SECOND);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bindInvalidEnum() throws Exception {
+        doAssert(new EnumObject(), "field", "THIRD", null);
+    }
+
+    @Test
+    public void shouldProbeSupportedTypes() throws Exception {
+        assertThat(binder.supports(int.class)).isTrue();
+        assertThat(binder.supports(Character.class)).isTrue();
+        assertThat(binder.supports(TestEnum.class)).isTrue();
+        assertThat(binder.supports(NonStaticValueOf.class)).isFalse();
+        assertThat(binder.supports(NonPublicValueOf.class)).isFalse();
+        assertThat(binder.supports(Object.class)).isFalse();
+    }
+
+    @Test
+    public void shouldProvideConverter() throws Exception {
+        assertThat(binder.getConverter(long.class).convert("-12")).isEqualTo(-12L);
+        assertThat(binder.getConverter(char.class).convert("xyz")).isEqualTo('x');
+        assertThat(binder.getConverter(Object.class)).isNull();
+    }
+
     @Test(expected = NoSuchMethodException.class)
     public void nonStaticValueOf() throws Exception {
         doAssert(NonStaticValueOf.instance, "field", "test", null);
@@ -58,6 +87,15 @@ public class StandardStaticValueOfBinderTest extends AbstractBinderTest {
         }
     }
 
+    private enum TestEnum {
+        FIRST, SECOND
+    }
+
+    private static class EnumObject {
+        @Option(name = 'f')
+        TestEnum field;
+    }
+
     private static class NonStaticValueOf {
         static NonStaticValueOf instance = new NonStaticValueOf();
 
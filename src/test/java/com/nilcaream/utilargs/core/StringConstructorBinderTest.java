@@ -22,6 +22,8 @@ import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import static org.fest.assertions.Assertions.assertThat;
 
@@ -57,6 +59,21 @@ public class StringConstructorBinderTest extends AbstractBinderTest {
         doAssert(new TestObject(), "bigInteger", "123456789012345", new BigInteger("123456789012345"));
     }
 
+    @Test
+    public void bindString() throws Exception {
+        doAssert(new TestObject(), "string", "test 10", "test 10");
+    }
+
+    @Test
+    public void bindPath() throws Exception {
+        doAssert(new TestObject(), "path", "/tmp/test 10.txt", Paths.get("/tmp/test 10.txt"));
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void noStringConstructor() throws Exception {
+        doAssert(new TestObject(), "number", "10", null);
+    }
+
     protected void doAssertAsString(Object wrapper, String fieldName, String actual, Object expected) throws Exception {
         // given
         Parameter parameter = createFrom(wrapper, fieldName, actual);
@@ -73,5 +90,8 @@ public class StringConstructorBinderTest extends AbstractBinderTest {
         StringBuilder stringBuilder;
         BigDecimal bigDecimal;
         BigInteger bigInteger;
+        String string;
+        Path path;
+        Number number;
     }
 }
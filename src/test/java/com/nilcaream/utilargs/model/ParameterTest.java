@@ -77,6 +77,47 @@ public class ParameterTest {
         assertThat(a.compareTo(b)).isEqualTo(0);
     }
 
+    @Test
+    public void addArguments() throws Exception {
+        // given
+        Parameter parameter = new Parameter();
+
+        // when
+        parameter.addArgument("a");
+        parameter.addArgument("b,c");
+
+        // then
+        assertThat(parameter.getArgument()).isEqualTo("b,c");
+        assertThat(parameter.getArguments()).containsExactly("a", "b,c");
+    }
+
+    @Test
+    public void setArgumentReplacesAddedArguments() throws Exception {
+        // given
+        Parameter parameter = new Parameter();
+        parameter.addArgument("a");
+        parameter.addArgument("b");
+
+        // when
+        parameter.setArgument("c");
+
+        // then
+        assertThat(parameter.getArgument()).isEqualTo("c");
+        assertThat(parameter.getArguments()).containsExactly("c");
+    }
+
+    @Test
+    public void noArguments() throws Exception {
+        // given
+        Parameter parameter = new Parameter();
+
+        // when
+        parameter.setArgument(null);
+
+        // then
+        assertThat(parameter.getArguments()).isEmpty();
+    }
+
     private static final class TestObject {
         @Option(name = 'A')
         int optionA;
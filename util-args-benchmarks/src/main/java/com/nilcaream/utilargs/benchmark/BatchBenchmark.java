@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.ColumnarBatch;
+import com.nilcaream.utilargs.CompiledParser;
+import com.nilcaream.utilargs.ParseResult;
+import com.nilcaream.utilargs.UtilArgs;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of 1M argument vectors, each setting given number of options of a wrapper with 100 options. Scores are
+ * per single vector: one-at-a-time {@link UtilArgs#process(String[], Object)} calls are compared to
+ * {@link CompiledParser} calls, to batches, sequential and split between threads of the common pool, and to
+ * a {@link ColumnarBatch}. All results are kept until the end of invocation, as a batch does.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@OperationsPerInvocation(BatchBenchmark.VECTORS)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    static final int VECTORS = 1_000_000;
+    private static final int OPTIONS = 100;
+
+    @Param({"1", "10"})
+    private int arguments;
+
+    private Class<?> type;
+    private CompiledParser<?> parser;
+    private List<String[]> vectors;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        type = Wrappers.create(OPTIONS);
+        parser = CompiledParser.compile(type);
+        String[] commandLine = Wrappers.arguments(OPTIONS, arguments);
+        vectors = new ArrayList<>(VECTORS);
+        for (int index = 0; index < VECTORS; index++) {
+            vectors.add(commandLine.clone());
+        }
+    }
+
+    @Benchmark
+    public List<UtilArgs> processEach() {
+        List<UtilArgs> results = new ArrayList<>();
+        for (String[] vector : vectors) {
+            results.add(UtilArgs.process(vector, Wrappers.newInstance(type)));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<ParseResult<?>> parseEach() {
+        List<ParseResult<?>> results = new ArrayList<>();
+        for (String[] vector : vectors) {
+            results.add(parser.parse(vector));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<? extends ParseResult<?>> parseAll() {
+        return parser.parseAll(vectors);
+    }
+
+    @Benchmark
+    public List<? extends ParseResult<?>> parseAllParallel() {
+        return parser.parseAll(vectors, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public ColumnarBatch parseColumns() {
+        return parser.parseColumns(vectors);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.core.ArgumentBinder;
+import com.nilcaream.utilargs.core.StaticValueOfBinder;
+import com.nilcaream.utilargs.core.StringConstructorBinder;
+import com.nilcaream.utilargs.model.Parameter;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of a single field through the default binder chain, with converters resolved per call (reflective)
+ * and once per type (handle). The handle chain only contains binders that support the field type, as resolved by
+ * ArgumentProcessor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinderBenchmark {
+
+    @Param({"int", "long", "enum", "BigDecimal", "custom"})
+    private String type;
+
+    private final List<ArgumentBinder> reflective = Arrays.asList(new ReflectiveBinders.StaticValueOf(), new ReflectiveBinders.StringConstructor());
+    private final List<ArgumentBinder> handle = new ArrayList<>();
+
+    private Wrapper wrapper;
+    private Parameter parameter;
+
+    @Setup
+    public void setUp() throws Exception {
+        wrapper = new Wrapper();
+        parameter = new Parameter();
+        switch (type) {
+            case "int":
+                parameter.setField(Wrapper.class.getDeclaredField("intValue"));
+                parameter.setArgument("123456");
+                break;
+            case "long":
+                parameter.setField(Wrapper.class.getDeclaredField("longValue"));
+                parameter.setArgument("1234567890123");
+                break;
+            case "enum":
+                parameter.setField(Wrapper.class.getDeclaredField("enumValue"));
+                parameter.setArgument("SECOND");
+                break;
+            case "BigDecimal":
+                parameter.setField(Wrapper.class.getDeclaredField("bigDecimal"));
+                parameter.setArgument("1234.5678");
+                break;
+            case "custom":
+                parameter.setField(Wrapper.class.getDeclaredField("custom"));
+                parameter.setArgument("custom");
+                break;
+            default:
+                throw new IllegalArgumentException(type);
+        }
+        for (ArgumentBinder binder : Arrays.asList(new StaticValueOfBinder(), new StringConstructorBinder())) {
+            if (binder.supports(parameter.getField().getType())) {
+                handle.add(binder);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object reflective() {
+        return bind(reflective);
+    }
+
+    @Benchmark
+    public Object handle() {
+        return bind(handle);
+    }
+
+    private Object bind(List<ArgumentBinder> binders) {
+        for (ArgumentBinder binder : binders) {
+            try {
+                binder.bind(parameter, wrapper);
+                break;
+            } catch (Exception e) {
+                // same as ArgumentProcessor
+            }
+        }
+        return wrapper;
+    }
+
+    public enum Level {
+        FIRST, SECOND
+    }
+
+    public static class Custom {
+        private final String value;
+
+        public Custom(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class Wrapper {
+        int intValue;
+        long longValue;
+        Level enumValue;
+        BigDecimal bigDecimal;
+        Custom custom;
+    }
+}
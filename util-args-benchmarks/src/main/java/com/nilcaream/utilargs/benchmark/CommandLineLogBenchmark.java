@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.CommandLineLog;
+import com.nilcaream.utilargs.CompiledParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Parsing of a synthetic log file (256MB by default) in which every line is a command line setting 10 of 100
+ * options of a wrapper, by sequential and parallel streams of {@link CommandLineLog}. Results are counted only.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CommandLineLogBenchmark {
+
+    private static final int OPTIONS = 100;
+
+    @Param({"256"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private CompiledParser<?> parser;
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        parser = CompiledParser.compile(Wrappers.create(OPTIONS));
+        path = Files.createTempFile("util-args-benchmark", ".log");
+        String line = "'" + String.join("' '", Wrappers.arguments(OPTIONS, 10)) + "'\n";
+        long bytes = (long) size << 20;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (long written = 0; written < bytes; written += line.length()) {
+                writer.write(line);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public long parse() throws IOException {
+        try (Stream<?> results = new CommandLineLog().parse(path, parser)) {
+            return parallel ? results.parallel().count() : results.count();
+        }
+    }
+}
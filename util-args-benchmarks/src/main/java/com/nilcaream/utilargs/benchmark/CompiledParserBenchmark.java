@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.CompiledParser;
+import com.nilcaream.utilargs.ParseResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line processing by a single {@link CompiledParser} shared between 8 threads, each parse creating its own
+ * wrapper instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class CompiledParserBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int options;
+
+    @Param({"1", "10", "100"})
+    private int arguments;
+
+    private CompiledParser<?> parser;
+    private String[] commandLine;
+
+    @Setup
+    public void setUp() throws Exception {
+        parser = CompiledParser.compile(Wrappers.create(options));
+        commandLine = Wrappers.arguments(options, arguments);
+    }
+
+    @Benchmark
+    public ParseResult<?> parse() {
+        return parser.parse(commandLine);
+    }
+}
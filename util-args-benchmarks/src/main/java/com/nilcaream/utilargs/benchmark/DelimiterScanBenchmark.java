@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.PropertiesProcessor;
+import com.nilcaream.utilargs.core.DelimiterScanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory-mapped scanning of a 64MB properties file with the scalar and the Vector API delimiter scanners. Typical
+ * file has short keys and values, pathological file has values of 4KB.
+ * <p/>
+ * Forks add jdk.incubator.vector module, so the default scanner is vectorized on Java 17 and later. The vector
+ * scanner fails the trial when the default scanner is the scalar one, e.g. on Java 8.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class DelimiterScanBenchmark {
+
+    private static final long SIZE = 64 << 20;
+
+    @Param({"scalar", "vector"})
+    private String scanner;
+
+    @Param({"typical", "longValues"})
+    private String file;
+
+    private Path path;
+    private PropertiesProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DelimiterScanner delimiterScanner = "scalar".equals(scanner) ? DelimiterScanner.getScalar() : DelimiterScanner.getDefault();
+        if ("vector".equals(scanner) && delimiterScanner == DelimiterScanner.getScalar()) {
+            throw new IllegalStateException("Vector API delimiter scanner is not available");
+        }
+        processor = new PropertiesProcessor(delimiterScanner);
+        path = Files.createTempFile("util-args-benchmark", ".properties");
+        int valueLength = "typical".equals(file) ? 12 : 4096;
+        StringBuilder value = new StringBuilder();
+        for (int index = 0; index < valueLength; index++) {
+            value.append((char) ('a' + index % 26));
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            long written = 0;
+            for (int line = 0; written < SIZE; line++) {
+                String text = (line % 10 == 0 ? "# comment " : "option.") + line + "=" + value + "\n";
+                writer.write(text);
+                written += text.length();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) throws IOException {
+        processor.processMapped(path, (key, value) -> blackhole.consume(key));
+    }
+}
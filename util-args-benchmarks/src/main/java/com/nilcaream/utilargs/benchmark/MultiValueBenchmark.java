@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.UtilArgs;
+import com.nilcaream.utilargs.model.Option;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of given number of comma-separated values, or of as many repeated options, into an int[] and a List of
+ * Strings. Splitting the value with {@link String#split(String)} into boxed Integers is measured for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiValueBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int values;
+
+    private String[] commaSeparated;
+    private String[] repeated;
+    private String[] commaSeparatedStrings;
+
+    @Setup
+    public void setUp() {
+        StringBuilder value = new StringBuilder();
+        repeated = new String[values * 2];
+        for (int index = 0; index < values; index++) {
+            value.append(index == 0 ? "" : ",").append(index * 31);
+            repeated[index * 2] = "-p";
+            repeated[index * 2 + 1] = String.valueOf(index * 31);
+        }
+        commaSeparated = new String[]{"-p", value.toString()};
+        commaSeparatedStrings = new String[]{"-I", value.toString()};
+    }
+
+    @Benchmark
+    public int[] processCommaSeparated() {
+        Values wrapper = new Values();
+        new UtilArgs(commaSeparated, wrapper);
+        return wrapper.ports;
+    }
+
+    @Benchmark
+    public int[] processRepeated() {
+        Values wrapper = new Values();
+        new UtilArgs(repeated, wrapper);
+        return wrapper.ports;
+    }
+
+    @Benchmark
+    public List<String> processStringList() {
+        Values wrapper = new Values();
+        new UtilArgs(commaSeparatedStrings, wrapper);
+        return wrapper.includes;
+    }
+
+    @Benchmark
+    public List<Integer> splitRegex() {
+        String[] parts = commaSeparated[1].split(",");
+        List<Integer> ports = new ArrayList<>();
+        for (String part : parts) {
+            ports.add(Integer.valueOf(part));
+        }
+        return ports;
+    }
+
+    public static class Values {
+
+        @Option(name = 'p')
+        private int[] ports;
+
+        @Option(name = 'I')
+        private List<String> includes;
+    }
+}
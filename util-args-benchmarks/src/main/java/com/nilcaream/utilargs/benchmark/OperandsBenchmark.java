@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.UtilArgs;
+import com.nilcaream.utilargs.model.Operands;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line processing of argument vectors of given length: 10 options of a wrapper with 100 options followed by
+ * operands, as passed by xargs. Operands are read one by one from the list view, or joined once and read again.
+ * Time and allocation per operation should grow linearly with the number of arguments.
+ * <p/>
+ * Operands are also bound to an {@link Operands} list of paths, of which only the first one or all are read, and
+ * to an array of paths, converted while binding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperandsBenchmark {
+
+    private static final int OPTIONS = 100;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int arguments;
+
+    private Object wrapper;
+    private String[] commandLine;
+    private String[] operands;
+
+    @Setup
+    public void setUp() throws Exception {
+        wrapper = Wrappers.newInstance(Wrappers.create(OPTIONS));
+        String[] options = Wrappers.arguments(OPTIONS, 10);
+        commandLine = new String[Math.max(arguments, options.length)];
+        System.arraycopy(options, 0, commandLine, 0, options.length);
+        for (int index = options.length; index < commandLine.length; index++) {
+            commandLine[index] = "/data/file " + index + ".txt";
+        }
+        operands = new String[arguments];
+        for (int index = 0; index < operands.length; index++) {
+            operands[index] = "/data/file " + index + ".txt";
+        }
+    }
+
+    @Benchmark
+    public void processOperandList(Blackhole blackhole) {
+        for (String operand : UtilArgs.process(commandLine, wrapper).getOperandList()) {
+            blackhole.consume(operand);
+        }
+    }
+
+    @Benchmark
+    public void processOperands(Blackhole blackhole) {
+        UtilArgs utilArgs = UtilArgs.process(commandLine, wrapper);
+        blackhole.consume(utilArgs.getOperands());
+        blackhole.consume(utilArgs.getOperands());
+    }
+
+    @Benchmark
+    public Path processFirstPath() {
+        PathList wrapper = new PathList();
+        new UtilArgs(operands, wrapper);
+        return wrapper.paths.get(0);
+    }
+
+    @Benchmark
+    public void processAllPaths(Blackhole blackhole) {
+        PathList wrapper = new PathList();
+        new UtilArgs(operands, wrapper);
+        for (Path path : wrapper.paths) {
+            blackhole.consume(path);
+        }
+    }
+
+    @Benchmark
+    public Path[] processPathArray() {
+        PathArray wrapper = new PathArray();
+        new UtilArgs(operands, wrapper);
+        return wrapper.paths;
+    }
+
+    public static class PathList {
+
+        @Operands
+        private List<Path> paths;
+    }
+
+    public static class PathArray {
+
+        @Operands
+        private Path[] paths;
+    }
+}
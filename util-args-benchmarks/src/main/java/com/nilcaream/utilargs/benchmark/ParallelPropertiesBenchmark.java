@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.ArgumentProcessor;
+import com.nilcaream.utilargs.core.ArgumentBinder;
+import com.nilcaream.utilargs.core.PrimitiveBinder;
+import com.nilcaream.utilargs.core.StaticValueOfBinder;
+import com.nilcaream.utilargs.core.StringConstructorBinder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel loading of a large synthetic properties file (1GB by default) with pools of given number of threads.
+ * Every line sets one of 1000 options, about a half of lines use unknown keys. Threads of 0 stand for sequential
+ * memory-mapped loading.
+ * <p/>
+ * The file is written once per trial into the temporary directory, e.g. run with
+ * {@code -p size=64} to use a smaller one.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ParallelPropertiesBenchmark {
+
+    private static final int OPTIONS = 1000;
+
+    @Param({"1024"})
+    private int size;
+
+    @Param({"0", "1", "2", "4", "8"})
+    private int threads;
+
+    private final List<ArgumentBinder> binders =
+            Arrays.asList(new PrimitiveBinder(), new StaticValueOfBinder(), new StringConstructorBinder());
+
+    private Object wrapper;
+    private Path path;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        wrapper = Wrappers.newInstance(Wrappers.create(OPTIONS));
+        path = Files.createTempFile("util-args-benchmark", ".properties");
+        long bytes = (long) size << 20;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            long written = 0;
+            for (int line = 0; written < bytes; line++) {
+                int option = line % OPTIONS;
+                String text = (line % 2 == 0 ? "option" : "unknown") + option + "=" + Wrappers.value(option) + "\n";
+                writer.write(text);
+                written += text.length();
+            }
+        }
+        pool = threads == 0 ? null : new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public ArgumentProcessor process() throws IOException {
+        ArgumentProcessor processor = new ArgumentProcessor();
+        processor.setBinders(binders);
+        processor.setPropertiesPool(pool);
+        processor.initialize(path, wrapper);
+        return processor;
+    }
+}
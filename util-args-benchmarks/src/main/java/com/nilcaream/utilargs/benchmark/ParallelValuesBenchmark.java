@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.ArgumentProcessor;
+import com.nilcaream.utilargs.core.PrimitiveBinder;
+import com.nilcaream.utilargs.core.StaticValueOfBinder;
+import com.nilcaream.utilargs.core.StringConstructorBinder;
+import com.nilcaream.utilargs.model.Option;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of a "--weights" value of given number of comma-separated doubles into a double[] field, parsed on the
+ * calling thread or split into chunks parsed by common pool regardless of value length. The crossover point of
+ * both is the lowest value length worth parsing in parallel, see
+ * {@link ArgumentProcessor#setParallelValuesLength(int)}. Run with more than one CPU.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelValuesBenchmark {
+
+    @Param({"100", "1000", "5000", "10000", "100000", "1000000"})
+    private int values;
+
+    private String[] arguments;
+    private ArgumentProcessor sequential;
+    private ArgumentProcessor parallel;
+
+    @Setup
+    public void setUp() {
+        StringBuilder value = new StringBuilder();
+        for (int index = 0; index < values; index++) {
+            value.append(index == 0 ? "" : ",").append(Math.round(Math.sin(index) * 1e6) / 1e6);
+        }
+        arguments = new String[]{"--weights", value.toString()};
+        sequential = createProcessor(null);
+        parallel = createProcessor(ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public double[] parseSequential() {
+        Weights wrapper = new Weights();
+        sequential.initialize(arguments, wrapper);
+        return wrapper.weights;
+    }
+
+    @Benchmark
+    public double[] parseParallel() {
+        Weights wrapper = new Weights();
+        parallel.initialize(arguments, wrapper);
+        return wrapper.weights;
+    }
+
+    private static ArgumentProcessor createProcessor(ForkJoinPool pool) {
+        ArgumentProcessor processor = new ArgumentProcessor();
+        processor.setBinders(Arrays.asList(new PrimitiveBinder(), new StaticValueOfBinder(), new StringConstructorBinder()));
+        processor.setValuesPool(pool);
+        processor.setParallelValuesLength(0);
+        return processor;
+    }
+
+    public static class Weights {
+
+        @Option(longName = "weights")
+        private double[] weights;
+    }
+}
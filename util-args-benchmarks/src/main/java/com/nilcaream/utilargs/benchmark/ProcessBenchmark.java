@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.ArgumentProcessor;
+import com.nilcaream.utilargs.CommandLineTokenizer;
+import com.nilcaream.utilargs.UtilArgs;
+import com.nilcaream.utilargs.core.PrimitiveBinder;
+import com.nilcaream.utilargs.core.StaticValueOfBinder;
+import com.nilcaream.utilargs.core.StringConstructorBinder;
+import com.nilcaream.utilargs.model.Parameter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line processing of wrappers with given number of declared options and given number of options set in
+ * argument vector.
+ * <p/>
+ * Whole command line strings are processed after splitting by a regular expression, after tokenizing into an array
+ * and by tokenizing while processing. NUL-separated bytes, as read from /proc/PID/cmdline, are processed after
+ * decoding and splitting and directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int options;
+
+    @Param({"1", "10", "100"})
+    private int arguments;
+
+    private Object wrapper;
+    private String[] commandLine;
+    private String commandLineString;
+    private byte[] nulSeparated;
+    private String[] booleanGroups;
+    private ArgumentProcessor processor;
+
+    @Setup
+    public void setUp() throws Exception {
+        wrapper = Wrappers.newInstance(Wrappers.create(options));
+        commandLine = Wrappers.arguments(options, arguments);
+        booleanGroups = Wrappers.booleanGroups(options, arguments);
+        commandLineString = String.join(" ", commandLine);
+        nulSeparated = (String.join("\0", commandLine) + "\0").getBytes(StandardCharsets.UTF_8);
+        processor = new ArgumentProcessor();
+        processor.setBinders(Arrays.asList(new PrimitiveBinder(), new StaticValueOfBinder(), new StringConstructorBinder()));
+        processor.initialize(commandLine, wrapper);
+    }
+
+    @Benchmark
+    public UtilArgs process() {
+        return UtilArgs.process(commandLine, wrapper);
+    }
+
+    @Benchmark
+    public UtilArgs processBooleanGroups() {
+        return UtilArgs.process(booleanGroups, wrapper);
+    }
+
+    @Benchmark
+    public UtilArgs processSplitString() {
+        return UtilArgs.process(commandLineString.split("\\s+"), wrapper);
+    }
+
+    @Benchmark
+    public UtilArgs processTokenizedString() {
+        return UtilArgs.process(CommandLineTokenizer.tokenize(commandLineString), wrapper);
+    }
+
+    @Benchmark
+    public UtilArgs processString() {
+        return UtilArgs.process(commandLineString, wrapper);
+    }
+
+    @Benchmark
+    public UtilArgs processDecodedNulSeparated() {
+        return UtilArgs.process(new String(nulSeparated, StandardCharsets.UTF_8).split("\0"), wrapper);
+    }
+
+    @Benchmark
+    public UtilArgs processNulSeparated() {
+        return UtilArgs.process(ByteBuffer.wrap(nulSeparated), wrapper);
+    }
+
+    @Benchmark
+    public List<Parameter> getParameters() {
+        return processor.getParameters();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.PropertiesProcessor;
+import com.nilcaream.utilargs.UtilArgs;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Properties file processing of wrappers with given number of declared options. The file sets given number of
+ * options (spread evenly over all options), with a comment and an unknown key for each of them.
+ * <p/>
+ * The streamed and memory-mapped readers are also measured on their own, consuming all keys and values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertiesBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int options;
+
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    private Object wrapper;
+    private Path path;
+    private PropertiesProcessor propertiesProcessor = new PropertiesProcessor();
+
+    @Setup
+    public void setUp() throws Exception {
+        wrapper = Wrappers.newInstance(Wrappers.create(options));
+        path = Files.createTempFile("util-args-benchmark", ".properties");
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int j = 0; j < lines; j++) {
+                int option = j * options / lines;
+                writer.write("# option " + option + "\n");
+                writer.write("option" + option + "=" + Wrappers.value(option) + "\n");
+                writer.write("unknown" + j + "=value\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public UtilArgs process() throws IOException {
+        return UtilArgs.process(path, wrapper);
+    }
+
+    @Benchmark
+    public void readStreamed(Blackhole blackhole) throws IOException {
+        propertiesProcessor.process(path, (line, separator) -> blackhole.consume(line.charAt(separator - 1)));
+    }
+
+    @Benchmark
+    public void readMapped(Blackhole blackhole) throws IOException {
+        propertiesProcessor.processMapped(path, (key, value) -> blackhole.consume(key.charAt(key.length() - 1)));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import com.nilcaream.utilargs.core.ArgumentBinder;
+import com.nilcaream.utilargs.model.Parameter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Per-call reflective binders as implemented before converters were cached. Used as a baseline only.
+ */
+final class ReflectiveBinders {
+
+    private ReflectiveBinders() {
+    }
+
+    static final class StaticValueOf implements ArgumentBinder {
+
+        @Override
+        public void bind(Parameter parameter, Object wrapper) throws Exception {
+            Field field = parameter.getField();
+            Class<?> fieldType = field.getType();
+            if (fieldType.isPrimitive()) {
+                String name = fieldType.getName();
+                name = name.equals("int") ? "Integer" : name.equals("char") ? "Character" : name.substring(0, 1).toUpperCase() + name.substring(1);
+                fieldType = Class.forName("java.lang." + name);
+            }
+            boolean character = field.getType().equals(char.class) || field.getType().equals(Character.class);
+            Method valueOf = fieldType.getMethod("valueOf", character ? char.class : String.class);
+            if (Modifier.isStatic(valueOf.getModifiers())) {
+                Object argument = character ? (Object) parameter.getArgument().charAt(0) : parameter.getArgument();
+                Object value = valueOf.invoke(null, argument);
+                field.setAccessible(true);
+                field.set(wrapper, value);
+            } else {
+                throw new NoSuchMethodException("Method valueOf(String) is not static");
+            }
+        }
+    }
+
+    static final class StringConstructor implements ArgumentBinder {
+
+        @Override
+        public void bind(Parameter parameter, Object wrapper) throws Exception {
+            Field field = parameter.getField();
+            Constructor constructor = field.getType().getConstructor(String.class);
+            Object value = constructor.newInstance(parameter.getArgument());
+            field.setAccessible(true);
+            field.set(wrapper, value);
+        }
+    }
+}
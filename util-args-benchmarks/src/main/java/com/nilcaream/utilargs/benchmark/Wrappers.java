@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.benchmark;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates wrapper classes with given number of options. Option i is a boolean flag, int, String or double field
+ * (in that order, modulo 4) named "option{i}" with the same long name. First 52 options also get short names a-z,
+ * A-Z.
+ */
+final class Wrappers {
+
+    static final String SHORT_NAMES = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private Wrappers() {
+    }
+
+    static Class<?> create(int options) throws IOException, ClassNotFoundException {
+        String name = "GeneratedWrapper" + options;
+        StringBuilder source = new StringBuilder();
+        source.append("public class ").append(name).append(" {\n");
+        for (int i = 0; i < options; i++) {
+            source.append("    @com.nilcaream.utilargs.model.Option(");
+            if (i < SHORT_NAMES.length()) {
+                source.append("name = '").append(SHORT_NAMES.charAt(i)).append("', ");
+            }
+            source.append("longName = \"option").append(i).append("\") ");
+            source.append(type(i)).append(" option").append(i).append(";\n");
+        }
+        source.append("}\n");
+
+        Path directory = Files.createTempDirectory("util-args-benchmark");
+        Path file = directory.resolve(name + ".java");
+        Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Benchmarks require JDK to generate wrapper classes");
+        }
+        int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"),
+                "-d", directory.toString(), file.toString());
+        if (result != 0) {
+            throw new IllegalStateException("Unable to compile " + file);
+        }
+        URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, Wrappers.class.getClassLoader());
+        return loader.loadClass(name);
+    }
+
+    static Object newInstance(Class<?> type) {
+        try {
+            return type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean isFlag(int option) {
+        return option % 4 == 0;
+    }
+
+    /**
+     * Creates command line setting given number of options spread evenly over all options, followed by two operands.
+     */
+    static String[] arguments(int options, int count) {
+        count = Math.min(options, count);
+        List<String> arguments = new ArrayList<>();
+        for (int j = 0; j < count; j++) {
+            int option = j * options / count;
+            arguments.add("--option" + option);
+            if (!isFlag(option)) {
+                arguments.add(value(option));
+            }
+        }
+        arguments.add("first");
+        arguments.add("second");
+        return arguments.toArray(new String[arguments.size()]);
+    }
+
+    /**
+     * Creates groups of all short boolean flags, e.g. "-aeimquy", repeated given number of times.
+     */
+    static String[] booleanGroups(int options, int count) {
+        StringBuilder group = new StringBuilder("-");
+        for (int i = 0; i < Math.min(options, SHORT_NAMES.length()); i++) {
+            if (isFlag(i)) {
+                group.append(SHORT_NAMES.charAt(i));
+            }
+        }
+        String[] arguments = new String[count];
+        for (int j = 0; j < count; j++) {
+            arguments[j] = group.toString();
+        }
+        return arguments;
+    }
+
+    static String value(int option) {
+        switch (option % 4) {
+            case 1:
+                return Integer.toString(option * 31);
+            case 2:
+                return "value" + option;
+            case 3:
+                return option + ".25";
+            default:
+                return "true";
+        }
+    }
+
+    private static String type(int option) {
+        switch (option % 4) {
+            case 1:
+                return "int";
+            case 2:
+                return "String";
+            case 3:
+                return "double";
+            default:
+                return "boolean";
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.processor;
+
+import com.nilcaream.utilargs.core.GeneratedBinder;
+import com.nilcaream.utilargs.model.Operands;
+import com.nilcaream.utilargs.model.Option;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@link GeneratedBinder} for each class with {@link Option} annotated fields. Generated binder assigns
+ * converted arguments directly to wrapper fields, so it requires the wrapper class and its option fields to be
+ * accessible from the wrapper package and option fields not to be final. Classes that can not be handled are
+ * reported with a warning and are bound with reflection at runtime.
+ */
+@SupportedAnnotationTypes("com.nilcaream.utilargs.model.Option")
+public class OptionProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> wrappers = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Option.class)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                wrappers.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (TypeElement wrapper : wrappers) {
+            try {
+                List<Binding> bindings = resolve(wrapper);
+                if (bindings != null) {
+                    write(wrapper, bindings);
+                }
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write binder: " + e, wrapper);
+            }
+        }
+        return false;
+    }
+
+    private List<Binding> resolve(TypeElement wrapper) {
+        if (!isAccessible(wrapper)) {
+            skip(wrapper, "class is not accessible from its package");
+            return null;
+        }
+        List<Binding> bindings = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(wrapper.getEnclosedElements())) {
+            Option option = field.getAnnotation(Option.class);
+            if (option == null || (option.name() == 0 && "".equals(option.longName()))) {
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                skip(field, "option field is private or final");
+                return null;
+            }
+            String conversion = getConversion(field.asType());
+            if (conversion == null) {
+                skip(field, "option field type " + field.asType() + " is not supported");
+                return null;
+            }
+            String flagConversion = getFlagConversion(field.asType(), option.counted());
+            if (option.counted() && flagConversion == null) {
+                skip(field, "counted flag field type " + field.asType() + " is not supported");
+                return null;
+            }
+            bindings.add(new Binding(field, option, conversion, flagConversion));
+        }
+        return bindings;
+    }
+
+    private boolean isAccessible(TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            TypeElement current = (TypeElement) element;
+            NestingKind nesting = current.getNestingKind();
+            if (current.getModifiers().contains(Modifier.PRIVATE) || nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            element = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private void skip(Element element, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "No binder generated, " + reason + ". Reflection will be used at runtime.", element);
+    }
+
+    /**
+     * Gets expression converting "argument" variable into given type, in the same way as default binders do.
+     */
+    private String getConversion(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+                return "com.nilcaream.utilargs.core.Numbers.parseInt(argument)";
+            case LONG:
+                return "com.nilcaream.utilargs.core.Numbers.parseLong(argument)";
+            case DOUBLE:
+                return "com.nilcaream.utilargs.core.Numbers.parseDouble(argument)";
+            case SHORT:
+                return "com.nilcaream.utilargs.core.Numbers.parseShort(argument)";
+            case BYTE:
+                return "com.nilcaream.utilargs.core.Numbers.parseByte(argument)";
+            case FLOAT:
+                return "Float.parseFloat(argument)";
+            case BOOLEAN:
+                return "Boolean.parseBoolean(argument)";
+            case CHAR:
+                return "com.nilcaream.utilargs.core.PrimitiveBinder.parseChar(argument)";
+            case DECLARED:
+                return getDeclaredConversion((DeclaredType) type);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets expression converting "occurrences" variable of a flag into given type, in the same way as FlagBinder does.
+     *
+     * @return expression or null when field is not a flag
+     */
+    private String getFlagConversion(TypeMirror type, boolean counted) {
+        String name = type.getKind() == TypeKind.DECLARED
+                ? ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString() : type.getKind().name();
+        if (!counted) {
+            return name.equals("BOOLEAN") || name.equals("java.lang.Boolean") ? "true" : null;
+        }
+        switch (name) {
+            case "INT":
+            case "LONG":
+            case "java.lang.Integer":
+                return "occurrences";
+            case "java.lang.Long":
+                return "(long) occurrences";
+            case "SHORT":
+            case "java.lang.Short":
+                return "(short) com.nilcaream.utilargs.core.GeneratedBinder.checkRange(occurrences, Short.MAX_VALUE)";
+            case "BYTE":
+            case "java.lang.Byte":
+                return "(byte) com.nilcaream.utilargs.core.GeneratedBinder.checkRange(occurrences, Byte.MAX_VALUE)";
+            default:
+                return null;
+        }
+    }
+
+    private String getDeclaredConversion(DeclaredType type) {
+        TypeElement element = (TypeElement) type.asElement();
+        String name = element.getQualifiedName().toString();
+        if (!type.getTypeArguments().isEmpty() || !isAccessible(element)) {
+            return null;
+        }
+        if (name.equals("java.lang.String")) {
+            return "argument";
+        }
+        switch (name) {
+            case "java.lang.Integer":
+                return "Integer.valueOf(com.nilcaream.utilargs.core.Numbers.parseInt(argument))";
+            case "java.lang.Long":
+                return "Long.valueOf(com.nilcaream.utilargs.core.Numbers.parseLong(argument))";
+            case "java.lang.Double":
+                return "Double.valueOf(com.nilcaream.utilargs.core.Numbers.parseDouble(argument))";
+            case "java.lang.Short":
+                return "Short.valueOf(com.nilcaream.utilargs.core.Numbers.parseShort(argument))";
+            case "java.lang.Byte":
+                return "Byte.valueOf(com.nilcaream.utilargs.core.Numbers.parseByte(argument))";
+            case "java.lang.Character":
+                return "Character.valueOf(com.nilcaream.utilargs.core.PrimitiveBinder.parseChar(argument))";
+            default:
+                break;
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            return name + ".valueOf(argument)";
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals("valueOf") && isPublicStatic(method) && hasStringParameter(method)
+                    && processingEnv.getTypeUtils().isAssignable(method.getReturnType(), type)) {
+                return name + ".valueOf(argument)";
+            }
+        }
+        if (!element.getModifiers().contains(Modifier.ABSTRACT)) {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+                if (constructor.getModifiers().contains(Modifier.PUBLIC) && hasStringParameter(constructor)) {
+                    return "new " + name + "(argument)";
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isPublicStatic(ExecutableElement method) {
+        return method.getModifiers().contains(Modifier.PUBLIC) && method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private boolean hasStringParameter(ExecutableElement method) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        return parameters.size() == 1 && parameters.get(0).asType().getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) parameters.get(0).asType()).asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    private void write(TypeElement wrapper, List<Binding> bindings) throws IOException {
+        String binderName = GeneratedBinder.getBinderName(processingEnv.getElementUtils().getBinaryName(wrapper).toString());
+        int packageEnd = binderName.lastIndexOf('.');
+        String packageName = packageEnd < 0 ? "" : binderName.substring(0, packageEnd);
+        String simpleName = binderName.substring(packageEnd + 1);
+        String wrapperName = processingEnv.getTypeUtils().erasure(wrapper.asType()).toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n");
+        source.append(" * Binder of {@link ").append(wrapperName).append("} options generated by ")
+                .append(OptionProcessor.class.getName()).append(".\n");
+        source.append(" */\n");
+        source.append("public final class ").append(simpleName).append(" extends com.nilcaream.utilargs.core.GeneratedBinder {\n\n");
+
+        source.append("    public ").append(simpleName).append("() {\n");
+        source.append("        super(").append(wrapperName).append(".class,\n");
+        source.append("                new com.nilcaream.utilargs.model.Option[]{");
+        for (int index = 0; index < bindings.size(); index++) {
+            Option option = bindings.get(index).option;
+            source.append(index == 0 ? "" : ", ").append("option(").append(charLiteral(option.name())).append(", ")
+                    .append(stringLiteral(option.longName())).append(option.counted() ? ", true)" : ")");
+        }
+        source.append("},\n");
+        source.append("                new String[]{");
+        for (int index = 0; index < bindings.size(); index++) {
+            source.append(index == 0 ? "" : ", ").append(stringLiteral(bindings.get(index).field.getSimpleName().toString()));
+        }
+        source.append("},\n");
+        source.append("                new Class<?>[]{");
+        for (int index = 0; index < bindings.size(); index++) {
+            source.append(index == 0 ? "" : ", ")
+                    .append(processingEnv.getTypeUtils().erasure(bindings.get(index).field.asType())).append(".class");
+        }
+        source.append("});\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public void bind(Object wrapper, int index, String argument) throws Exception {\n");
+        source.append("        ").append(wrapperName).append(" target = (").append(wrapperName).append(") wrapper;\n");
+        source.append("        switch (index) {\n");
+        for (int index = 0; index < bindings.size(); index++) {
+            Binding binding = bindings.get(index);
+            String target = binding.field.getModifiers().contains(Modifier.STATIC) ? wrapperName : "target";
+            source.append("            case ").append(index).append(":\n");
+            source.append("                ").append(target).append(".").append(binding.field.getSimpleName())
+                    .append(" = ").append(binding.conversion).append(";\n");
+            source.append("                break;\n");
+        }
+        source.append("            default:\n");
+        source.append("                throw new IllegalArgumentException(\"Unknown option index \" + index);\n");
+        source.append("        }\n");
+        source.append("    }\n");
+
+        if (hasFlags(bindings)) {
+            source.append("\n");
+            source.append("    @Override\n");
+            source.append("    public void bindFlag(Object wrapper, int index, int occurrences) throws Exception {\n");
+            source.append("        ").append(wrapperName).append(" target = (").append(wrapperName).append(") wrapper;\n");
+            source.append("        switch (index) {\n");
+            for (int index = 0; index < bindings.size(); index++) {
+                Binding binding = bindings.get(index);
+                if (binding.flagConversion == null) {
+                    continue;
+                }
+                String target = binding.field.getModifiers().contains(Modifier.STATIC) ? wrapperName : "target";
+                source.append("            case ").append(index).append(":\n");
+                source.append("                ").append(target).append(".").append(binding.field.getSimpleName())
+                        .append(" = ").append(binding.flagConversion).append(";\n");
+                source.append("                break;\n");
+            }
+            source.append("            default:\n");
+            source.append("                super.bindFlag(wrapper, index, occurrences);\n");
+            source.append("        }\n");
+            source.append("    }\n");
+        }
+
+        String operandsFieldName = getOperandsFieldName(wrapper);
+        source.append("\n");
+        source.append("    @Override\n");
+        source.append("    public String getOperandsFieldName() {\n");
+        source.append("        return ").append(operandsFieldName == null ? "null" : stringLiteral(operandsFieldName))
+                .append(";\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(binderName, wrapper).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private static String getOperandsFieldName(TypeElement wrapper) {
+        for (VariableElement field : ElementFilter.fieldsIn(wrapper.getEnclosedElements())) {
+            if (field.getAnnotation(Operands.class) != null) {
+                return field.getSimpleName().toString();
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasFlags(List<Binding> bindings) {
+        for (Binding binding : bindings) {
+            if (binding.flagConversion != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String charLiteral(char value) {
+        if (value >= 0x20 && value < 0x7f && value != '\'' && value != '\\') {
+            return "'" + value + "'";
+        }
+        return "(char) " + (int) value;
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20) {
+                literal.append(String.format("\\%03o", (int) c));
+            } else if (c >= 0x7f) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static final class Binding {
+
+        private final VariableElement field;
+        private final Option option;
+        private final String conversion;
+        private final String flagConversion;
+
+        private Binding(VariableElement field, Option option, String conversion, String flagConversion) {
+            this.field = field;
+            this.option = option;
+            this.conversion = conversion;
+            this.flagConversion = flagConversion;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2017 Krzysztof Smigielski
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nilcaream.utilargs.processor;
+
+import com.nilcaream.utilargs.UtilArgs;
+import com.nilcaream.utilargs.core.BindingPlan;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class OptionProcessorTest {
+
+    private Path directory;
+    private DiagnosticCollector<JavaFileObject> diagnostics;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("option-processor");
+        diagnostics = new DiagnosticCollector<>();
+    }
+
+    @Test
+    public void shouldGenerateBinder() throws Exception {
+        // given
+        String source = "package test;\n"
+                + "public class Wrapper {\n"
+                + "    public enum Level { LOW, HIGH }\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'n', longName = \"na\\\"me\") String name;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = '\\'') int count;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'v') boolean verbose;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'd') Double ratio;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'l') Level level;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'a') java.math.BigDecimal amount;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'c') char character;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'i') Integer boxed;\n"
+                + "    @com.nilcaream.utilargs.model.Operands long[] sizes;\n"
+                + "    int other;\n"
+                + "}\n";
+
+        // when
+        ClassLoader loader = compile("test.Wrapper", source);
+        Object wrapper = loader.loadClass("test.Wrapper").getDeclaredConstructor().newInstance();
+        UtilArgs ua = UtilArgs.process("--na\"me test -' 12 -v -d 1.5 -l HIGH -a 1.25 -c xyz 5 7".split(" "), wrapper);
+
+        // then
+        assertThat(Files.exists(directory.resolve("test/WrapperArgs.class"))).isTrue();
+        assertThat(BindingPlan.of(wrapper.getClass()).getGeneratedBinder()).isNotNull();
+        assertThat(BindingPlan.of(wrapper.getClass()).get("-'").getField()).isNotNull();
+        assertThat(get(wrapper, "name")).isEqualTo("test");
+        assertThat(get(wrapper, "count")).isEqualTo(12);
+        assertThat(get(wrapper, "verbose")).isEqualTo(true);
+        assertThat(get(wrapper, "ratio")).isEqualTo(1.5);
+        assertThat(get(wrapper, "level").toString()).isEqualTo("HIGH");
+        assertThat(get(wrapper, "amount")).isEqualTo(new BigDecimal("1.25"));
+        assertThat(get(wrapper, "character")).isEqualTo('x');
+        assertThat((long[]) get(wrapper, "sizes")).isEqualTo(new long[]{5, 7});
+        assertThat(BindingPlan.of(wrapper.getClass()).getGeneratedBinder().getOperandsFieldName()).isEqualTo("sizes");
+        assertThat(ua.getOperands()).isEqualTo("5 7");
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldConvertLikeReflectiveBinders() throws Exception {
+        // given
+        String source = "package test;\n"
+                + "public class Narrow {\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 's') short shortValue;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'b') byte byteValue;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'c') char character;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'i') Integer boxed;\n"
+                + "}\n";
+
+        // when
+        ClassLoader loader = compile("test.Narrow", source);
+        Object wrapper = loader.loadClass("test.Narrow").getDeclaredConstructor().newInstance();
+        UtilArgs valid = UtilArgs.process(new String[]{"-s", "-32768", "-b", "127", "-c", "xyz", "-i", "-7"}, wrapper);
+        UtilArgs invalid = UtilArgs.process(new String[]{"-s", "32768", "-b", "1x", "-c", "", "-i", "7x"}, wrapper);
+
+        // then
+        assertThat(BindingPlan.of(wrapper.getClass()).getGeneratedBinder()).isNotNull();
+        assertThat(valid.getBindingErrors()).isEmpty();
+        assertThat(get(wrapper, "shortValue")).isEqualTo((short) -32768);
+        assertThat(get(wrapper, "byteValue")).isEqualTo((byte) 127);
+        assertThat(get(wrapper, "character")).isEqualTo('x');
+        assertThat(get(wrapper, "boxed")).isEqualTo(-7);
+        assertThat(invalid.getBindingErrors()).hasSize(4);
+        assertThat(invalid.getBindingErrors().get(0).getCause().getStackTrace()).isEmpty();
+        assertThat(invalid.getBindingErrors().get(1).getCause().getStackTrace()).isEmpty();
+        assertThat(invalid.getBindingErrors().get(2).getCause()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(invalid.getBindingErrors().get(3).getCause().getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void shouldGenerateBinderOfNestedClass() throws Exception {
+        // given
+        String source = "package test;\n"
+                + "public class Outer {\n"
+                + "    static class Inner {\n"
+                + "        @com.nilcaream.utilargs.model.Option(longName = \"size\") long size;\n"
+                + "    }\n"
+                + "}\n";
+
+        // when
+        ClassLoader loader = compile("test.Outer", source);
+        Object wrapper = newInstance(loader.loadClass("test.Outer$Inner"));
+        UtilArgs ua = UtilArgs.process("--size x".split(" "), wrapper);
+        UtilArgs.process("--size 1234567890123".split(" "), wrapper);
+
+        // then
+        assertThat(Files.exists(directory.resolve("test/Outer_InnerArgs.class"))).isTrue();
+        assertThat(ua.getBindingErrors()).hasSize(1);
+        assertThat(get(wrapper, "size")).isEqualTo(1234567890123L);
+    }
+
+    @Test
+    public void shouldGenerateFlagBinder() throws Exception {
+        // given
+        String source = "package test;\n"
+                + "public class Flags {\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'v', counted = true) int verbosity;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'd', counted = true) Long debug;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'b', counted = true) byte level;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'q') Boolean quiet;\n"
+                + "}\n";
+
+        // when
+        ClassLoader loader = compile("test.Flags", source);
+        Object wrapper = newInstance(loader.loadClass("test.Flags"));
+        UtilArgs ua = UtilArgs.process("-vvdq -v -bb".split(" "), wrapper);
+
+        // then
+        assertThat(loader.loadClass("test.FlagsArgs").getDeclaredMethod("bindFlag", Object.class, int.class, int.class)).isNotNull();
+        assertThat(BindingPlan.of(wrapper.getClass()).get("-v").getOption().counted()).isTrue();
+        assertThat(get(wrapper, "verbosity")).isEqualTo(3);
+        assertThat(get(wrapper, "debug")).isEqualTo(1L);
+        assertThat(get(wrapper, "level")).isEqualTo((byte) 2);
+        assertThat(get(wrapper, "quiet")).isEqualTo(true);
+        assertThat(ua.getBindingErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldSkipUnsupportedCountedFlags() throws Exception {
+        // given
+        String source = "package test;\n"
+                + "public class Counted {\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'v', counted = true) String verbosity;\n"
+                + "}\n";
+
+        // when
+        compile("test.Counted", source);
+
+        // then
+        assertThat(Files.exists(directory.resolve("test/CountedArgs.class"))).isFalse();
+        assertThat(getWarnings()).hasSize(1);
+    }
+
+    @Test
+    public void shouldSkipPrivateFields() throws Exception {
+        // given
+        String source = "package test;\n"
+                + "public class Private {\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'n') private String name;\n"
+                + "}\n";
+
+        // when
+        ClassLoader loader = compile("test.Private", source);
+        Object wrapper = newInstance(loader.loadClass("test.Private"));
+        UtilArgs.process("-n test".split(" "), wrapper);
+
+        // then
+        assertThat(Files.exists(directory.resolve("test/PrivateArgs.class"))).isFalse();
+        assertThat(getWarnings()).hasSize(1);
+        assertThat(BindingPlan.of(wrapper.getClass()).getGeneratedBinder()).isNull();
+        assertThat(get(wrapper, "name")).isEqualTo("test");
+    }
+
+    @Test
+    public void shouldSkipUnsupportedTypes() throws Exception {
+        // given
+        String source = "package test;\n"
+                + "public class Unsupported {\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'n') java.util.List<String> names;\n"
+                + "    @com.nilcaream.utilargs.model.Option(name = 'o') Object object;\n"
+                + "}\n";
+
+        // when
+        compile("test.Unsupported", source);
+
+        // then
+        assertThat(Files.exists(directory.resolve("test/UnsupportedArgs.class"))).isFalse();
+        assertThat(getWarnings()).hasSize(1);
+    }
+
+    private ClassLoader compile(String className, String source) throws Exception {
+        Path file = directory.resolve(className.replace('.', File.separatorChar) + ".java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList("-d", directory.toString(), "-s", directory.toString(),
+                    "-classpath", System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(file.toFile()));
+            task.setProcessors(Collections.singletonList(new OptionProcessor()));
+            assertThat(task.call()).as(diagnostics.getDiagnostics().toString()).isTrue();
+        }
+        return new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> getWarnings() {
+        List<Diagnostic<? extends JavaFileObject>> warnings = new java.util.ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.WARNING && diagnostic.getMessage(null).contains("No binder generated")) {
+                warnings.add(diagnostic);
+            }
+        }
+        return warnings;
+    }
+
+    private Object newInstance(Class<?> type) throws Exception {
+        java.lang.reflect.Constructor<?> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    private Object get(Object wrapper, String fieldName) throws Exception {
+        java.lang.reflect.Field field = wrapper.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(wrapper);
+    }
+}